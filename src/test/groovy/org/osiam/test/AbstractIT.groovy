@@ -1,15 +1,11 @@
 package org.osiam.test
 
-import org.dbunit.database.DatabaseDataSourceConnection
-import org.dbunit.database.IDatabaseConnection
-import org.dbunit.dataset.IDataSet
-import org.dbunit.dataset.xml.FlatXmlDataSetBuilder
-import org.dbunit.operation.DatabaseOperation
+import org.osiam.client.TestEnvironment
 import org.osiam.client.connector.OsiamConnector
+import org.osiam.client.database.DatabaseSnapshot
 import org.osiam.client.oauth.AccessToken
 import org.osiam.client.oauth.GrantType
 import org.osiam.client.oauth.Scope
-import org.springframework.context.ApplicationContext
 import org.springframework.context.support.ClassPathXmlApplicationContext
 import spock.lang.Specification
 
@@ -21,6 +17,7 @@ import javax.sql.DataSource
  * @author: Andreas Grau, tarent solutions GmbH, 10.09.13
  * @version: 1.0
  */
+@EmbeddedOsiamServer
 abstract class AbstractIT extends Specification {
 
     protected static final String CLIENT_ID = "example-client"
@@ -29,8 +26,8 @@ abstract class AbstractIT extends Specification {
     private static final String USER_NAME = "marissa"
     private static final String USER_PASSWORD = "koala"
 
-    protected static final String AUTH_ENDPOINT = "http://localhost:8180/osiam-auth-server"
-    protected static final String RESOURCE_ENDPOINT = "http://localhost:8180/osiam-resource-server"
+    protected static final String AUTH_ENDPOINT = TestEnvironment.AUTH_ENDPOINT_ADDRESS
+    protected static final String RESOURCE_ENDPOINT = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS
 
     protected OsiamConnector osiamConnector;
     protected AccessToken accessToken;
@@ -60,20 +57,15 @@ abstract class AbstractIT extends Specification {
 
     def setupSpec() {
         // Load Spring context configuration.
-        ApplicationContext ac = new ClassPathXmlApplicationContext("context.xml")
-        // Get dataSource configuration.
-        DataSource dataSource = (DataSource) ac.getBean("dataSource")
-        // Establish database connection.
-        IDatabaseConnection connection = new DatabaseDataSourceConnection(dataSource)
-        // Load the initialization data from file.
-        IDataSet initData = new FlatXmlDataSetBuilder().build(ac.getResource("database_seed.xml").getFile())
-
-        // Insert initialization data into database.
+        ClassPathXmlApplicationContext ac = new ClassPathXmlApplicationContext("context.xml")
         try {
-            DatabaseOperation.CLEAN_INSERT.execute(connection, initData)
-        }
-        finally {
-            connection.close();
+            // Get dataSource configuration.
+            DataSource dataSource = (DataSource) ac.getBean("dataSource")
+            // Reset the database to the initialization data, restored from a snapshot after the first time.
+            DatabaseSnapshot.reset(dataSource, ac.getResource("database_seed.xml"))
+        } finally {
+            // closes the connection pool of the context
+            ac.close()
         }
     }
 }
\ No newline at end of file
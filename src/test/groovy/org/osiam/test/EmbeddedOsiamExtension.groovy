@@ -0,0 +1,25 @@
+package org.osiam.test
+
+import org.osiam.client.server.EmbeddedOsiam
+import org.spockframework.runtime.extension.AbstractAnnotationDrivenExtension
+import org.spockframework.runtime.extension.IMethodInterceptor
+import org.spockframework.runtime.extension.IMethodInvocation
+import org.spockframework.runtime.model.SpecInfo
+
+/**
+ * Spock extension behind {@link EmbeddedOsiamServer}.
+ */
+class EmbeddedOsiamExtension extends AbstractAnnotationDrivenExtension<EmbeddedOsiamServer> {
+
+    @Override
+    void visitSpecAnnotation(EmbeddedOsiamServer annotation, SpecInfo spec) {
+        // the annotation may sit on a base class, but only the interceptors of the executed spec are run
+        spec.bottomSpec.addInterceptor(new IMethodInterceptor() {
+            @Override
+            void intercept(IMethodInvocation invocation) throws Throwable {
+                EmbeddedOsiam.ensureStarted()
+                invocation.proceed()
+            }
+        })
+    }
+}
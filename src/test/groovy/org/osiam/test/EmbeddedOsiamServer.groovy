@@ -0,0 +1,20 @@
+package org.osiam.test
+
+import org.spockframework.runtime.extension.ExtensionAnnotation
+
+import java.lang.annotation.ElementType
+import java.lang.annotation.Retention
+import java.lang.annotation.RetentionPolicy
+import java.lang.annotation.Target
+
+/**
+ * Makes sure the OSIAM servers are reachable before the annotated specification and all specifications extending
+ * it run, booting the shared embedded servers if needed.
+ *
+ * @see org.osiam.client.server.EmbeddedOsiam
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@ExtensionAnnotation(EmbeddedOsiamExtension)
+@interface EmbeddedOsiamServer {
+}
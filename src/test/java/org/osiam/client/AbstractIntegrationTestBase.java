@@ -7,22 +7,28 @@ import java.lang.reflect.Field;
 import java.net.URLEncoder;
 
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.metrics.InstrumentedOsiamConnector;
+import org.osiam.client.metrics.MetricsReportListener;
 import org.osiam.client.oauth.AccessToken;
 import org.osiam.client.oauth.GrantType;
 import org.osiam.client.oauth.Scope;
+import org.osiam.client.server.EmbeddedOsiamRule;
 
 public abstract class AbstractIntegrationTestBase {
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
 	protected static final String VALID_USER_ID = "834b410a-943b-4c80-817a-4465aed037bc";
     protected static final String INVALID_ID = "ffffffff-ffff-ffff-ffff-fffffffffff";
     protected static final String INVALID_STRING = "invalid";
     protected static final String DELETE_USER_ID = "618b398c-0110-43f2-95df-d1bc4e7d2b4a";
     protected static final String VALID_GROUP_ID = "69e1a5dc-89be-4343-976c-b5541af249f4";
-    protected static final String AUTH_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-auth-server";
-    protected static final String RESOURCE_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-resource-server";
+    protected static final String AUTH_ENDPOINT_ADDRESS = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
+    protected static final String RESOURCE_ENDPOINT_ADDRESS = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS;
     protected static final String CLIENT_ID = "example-client";
     protected static final String CLIENT_SECRET = "secret";
-    protected OsiamConnector oConnector;
+    protected InstrumentedOsiamConnector oConnector;
     protected AccessToken accessToken;
 
     @Before
@@ -36,7 +42,7 @@ public abstract class AbstractIntegrationTestBase {
                 setUserName("marissa").
                 setPassword("koala").
                 setScope(Scope.ALL);
-        oConnector = oConBuilder.build();
+        oConnector = instrument(oConBuilder.build());
         accessToken = oConnector.retrieveAccessToken();
     }
 
@@ -50,10 +56,18 @@ public abstract class AbstractIntegrationTestBase {
                 setUserName("hsimpson").
                 setPassword("koala").
                 setScope(Scope.ALL);
-        oConnector = oConBuilder.build();
+        oConnector = instrument(oConBuilder.build());
         accessToken = oConnector.retrieveAccessToken();
     }
 
+    /**
+     * @return the connector reporting to the metrics printed at the end of the test run
+     */
+    protected InstrumentedOsiamConnector instrument(OsiamConnector connector) {
+        return new InstrumentedOsiamConnector.Builder(connector)
+                .setMetrics(MetricsReportListener.METRICS).build();
+    }
+
     protected void givenAnInvalidAccessToken() throws Exception {
         accessToken = new AccessToken();
         Field tokenField = accessToken.getClass().getDeclaredField("token");
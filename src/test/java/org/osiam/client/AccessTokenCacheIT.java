@@ -0,0 +1,118 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.metrics.InstrumentedOsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+import org.osiam.client.token.AccessTokenCache;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class AccessTokenCacheIT extends AbstractIntegrationTestBase {
+
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 50;
+
+    private final AccessTokenCache cache = new AccessTokenCache.Builder().build();
+
+    @After
+    public void closeCache() {
+        cache.close();
+    }
+
+    @Test
+    public void concurrent_units_of_work_share_one_token() throws Exception {
+        final AccessTokenCache.Key key = new AccessTokenCache.Key(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS,
+                CLIENT_ID, Scope.ALL, "marissa");
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() {
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    AccessToken token = cache.retrieveAccessToken(key, oConnector);
+                    oConnector.getUser(VALID_USER_ID, token);
+                }
+                return null;
+            }
+        });
+
+        assertEquals(THREADS * CALLS_PER_THREAD, cache.getRequests());
+        assertEquals(1, cache.getRetrievals());
+    }
+
+    @Test
+    public void short_lived_tokens_are_never_handed_out_expired() throws Exception {
+        InstrumentedOsiamConnector shortLivedConnector = instrument(new OsiamConnector.Builder().
+                setAuthServiceEndpoint(AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client-2").
+                setClientSecret("secret1").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("hsimpson").
+                setPassword("koala").
+                setScope(Scope.ALL).build());
+        AccessTokenCache.Key key = new AccessTokenCache.Key(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS,
+                "example-client-2", Scope.ALL, "hsimpson");
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        int handedOut = 0;
+        int reads = 0;
+
+        // the one second tokens report expires_in 0 or 1, the cache either hands them out in time or rejects them,
+        // an UnauthorizedException of an expired token fails the test; AccessTokenCacheTest covers the timing
+        while (System.nanoTime() < end) {
+            AccessToken token;
+            try {
+                token = cache.retrieveAccessToken(key, shortLivedConnector);
+            } catch (IllegalStateException tooShortLived) {
+                Thread.sleep(100);
+                continue;
+            }
+            handedOut++;
+            shortLivedConnector.getUser(VALID_USER_ID, token);
+            reads++;
+        }
+
+        assertTrue("no token was handed out", handedOut > 0);
+        assertTrue("no user was read", reads > 0);
+    }
+
+    private void runConcurrently(Callable<Void> unitOfWork) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(unitOfWork));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.async.AsyncOsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.exception.NoResultException;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.query.metamodel.User_;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class AsyncConnectorIT extends AbstractIntegrationTestBase {
+
+    private static final int FAN_OUT = 500;
+
+    private AsyncOsiamConnector asyncConnector;
+
+    @Before
+    public void setUp() {
+        asyncConnector = new AsyncOsiamConnector.Builder(oConnector).build();
+    }
+
+    @After
+    public void tearDown() {
+        asyncConnector.shutdown();
+    }
+
+    @Test
+    public void hundreds_of_concurrent_reads_return_the_right_resources() throws Exception {
+        List<Future<User>> users = new ArrayList<>();
+        List<Future<Group>> groups = new ArrayList<>();
+        List<Future<QueryResult<User>>> searches = new ArrayList<>();
+        Query query = new Query.Builder(User.class)
+                .setFilter(new Query.Filter(User.class, User_.userName.equalTo("bjensen"))).build();
+
+        for (int i = 0; i < FAN_OUT; i++) {
+            users.add(asyncConnector.getUser(VALID_USER_ID, accessToken));
+            groups.add(asyncConnector.getGroup(VALID_GROUP_ID, accessToken));
+            searches.add(asyncConnector.searchUsers(query, accessToken));
+        }
+
+        for (int i = 0; i < FAN_OUT; i++) {
+            assertEquals(VALID_USER_ID, users.get(i).get().getId());
+            assertEquals(VALID_GROUP_ID, groups.get(i).get().getId());
+            assertEquals(1, searches.get(i).get().getTotalResults());
+        }
+    }
+
+    @Test
+    public void hundreds_of_concurrent_writes_are_all_applied() throws Exception {
+        List<Future<User>> createdUsers = new ArrayList<>();
+        for (int i = 0; i < FAN_OUT; i++) {
+            createdUsers.add(asyncConnector.createUser(new User.Builder("async-" + UUID.randomUUID()).build(),
+                    accessToken));
+        }
+
+        List<Future<Void>> deletions = new ArrayList<>();
+        for (Future<User> createdUser : createdUsers) {
+            deletions.add(asyncConnector.deleteUser(createdUser.get().getId(), accessToken));
+        }
+        for (Future<Void> deletion : deletions) {
+            deletion.get();
+        }
+
+        for (Future<User> createdUser : createdUsers) {
+            assertDeleted(createdUser.get().getId());
+        }
+    }
+
+    @Test(expected = NoResultException.class)
+    public void exceptions_of_the_connector_are_rethrown() throws Throwable {
+        try {
+            asyncConnector.getUser(INVALID_ID, accessToken).get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void assertDeleted(String id) throws Exception {
+        try {
+            asyncConnector.getUser(id, accessToken).get();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NoResultException);
+            return;
+        }
+        throw new AssertionError("User " + id + " was not deleted");
+    }
+}
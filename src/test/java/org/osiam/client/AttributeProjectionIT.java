@@ -0,0 +1,152 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.projection.AttributeProjection;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class AttributeProjectionIT extends AbstractIntegrationTestBase {
+
+    @Test
+    public void searches_carry_the_attributes_parameter() {
+        List<String> queryStrings = new ArrayList<>();
+        String filter = "filter=" + encodeExpected("userName eq bjensen");
+
+        AttributeProjection.USER_SUMMARY.searchUsers(recording(queryStrings), filter, accessToken);
+
+        assertEquals(Arrays.asList(filter + "&attributes=id%2CuserName%2Cactive"), queryStrings);
+    }
+
+    @Test
+    public void single_resources_are_read_with_an_id_filter() {
+        List<String> queryStrings = new ArrayList<>();
+
+        AttributeProjection.of("id", "displayName").getGroup(recording(queryStrings), VALID_GROUP_ID, accessToken);
+
+        String filter = "filter=" + encodeExpected("id eq " + VALID_GROUP_ID);
+        assertEquals(Arrays.asList(filter + "&attributes=id%2CdisplayName"), queryStrings);
+    }
+
+    @Test
+    public void summary_binds_id_user_name_and_active() {
+        User created = oConnector.createUser(new User.Builder("projectedUser").setActive(true).build(), accessToken);
+
+        User user = AttributeProjection.USER_SUMMARY.getUser(oConnector, created.getId(), accessToken);
+
+        assertEquals(created.getId(), user.getId());
+        assertEquals("projectedUser", user.getUserName());
+        assertTrue(user.isActive());
+    }
+
+    @Test
+    public void searched_users_only_contain_the_requested_attributes() throws IOException {
+        assumeServerSupportsProjection();
+        QueryResult<User> result = AttributeProjection.USER_SUMMARY.searchUsers(oConnector,
+                "filter=" + encodeExpected("userName eq bjensen"), accessToken);
+
+        assertEquals(1, result.getTotalResults());
+        User user = result.getResources().get(0);
+        assertEquals(VALID_USER_ID, user.getId());
+        assertEquals("bjensen", user.getUserName());
+        assertNotLoaded(user.getEmails());
+        assertNull(user.getName());
+    }
+
+    @Test
+    public void a_single_user_is_projected() throws IOException {
+        assumeServerSupportsProjection();
+        User user = AttributeProjection.USER_SUMMARY.getUser(oConnector, VALID_USER_ID, accessToken);
+
+        assertEquals("bjensen", user.getUserName());
+        assertNotLoaded(user.getPhoneNumbers());
+    }
+
+    @Test
+    public void a_single_group_is_projected() throws IOException {
+        assumeServerSupportsProjection();
+        Group group = AttributeProjection.of("id", "displayName").getGroup(oConnector, VALID_GROUP_ID, accessToken);
+
+        assertNotNull(group.getDisplayName());
+        assertNotLoaded(group.getMembers());
+    }
+
+    @Test
+    public void an_unknown_id_returns_null() {
+        assertNull(AttributeProjection.USER_SUMMARY.getUser(oConnector, INVALID_ID, accessToken));
+    }
+
+    /**
+     * Only the omission of unrequested attributes depends on the server honoring the parameter.
+     */
+    private void assumeServerSupportsProjection() throws IOException {
+        HttpGet httpGet = new HttpGet(RESOURCE_ENDPOINT_ADDRESS + "/Users?"
+                + AttributeProjection.of("userName").appendTo("filter=" + encodeExpected("userName eq bjensen")));
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        try {
+            HttpResponse response = SharedHttpConnectionPool.getDefault().newHttpClient().execute(httpGet);
+            String body = EntityUtils.toString(response.getEntity());
+            assumeTrue(response.getStatusLine().getStatusCode() == 200 && !body.contains("\"emails\""));
+        } finally {
+            httpGet.releaseConnection();
+        }
+    }
+
+    /**
+     * @return the connector of the test, recording the query strings of its searches
+     */
+    private OsiamOperations recording(final List<String> queryStrings) {
+        return (OsiamOperations) Proxy.newProxyInstance(OsiamOperations.class.getClassLoader(),
+                new Class<?>[]{OsiamOperations.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().startsWith("search") && args[0] instanceof String) {
+                            queryStrings.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(oConnector, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private void assertNotLoaded(Collection<?> attribute) {
+        assertTrue(attribute == null || attribute.isEmpty());
+    }
+}
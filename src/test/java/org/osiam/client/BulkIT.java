@@ -0,0 +1,123 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.bulk.BulkExecutor;
+import org.osiam.client.bulk.BulkOperationResult;
+import org.osiam.client.bulk.BulkRequest;
+import org.osiam.client.bulk.BulkResponse;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.exception.ConflictException;
+import org.osiam.client.metrics.HistogramConnectorMetrics;
+import org.osiam.client.metrics.InstrumentedOsiamConnector;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class BulkIT extends AbstractIntegrationTestBase {
+
+    private static final int USERS = 100;
+    private static final int WARMUP_USERS = 10;
+
+    @Test
+    public void concurrent_bulk_create_needs_the_same_round_trips_as_the_per_call_loop_in_less_time() {
+        // warms up both paths, so that neither pays for class loading and connection setup alone
+        createInLoop("warmupLoop", WARMUP_USERS, new HistogramConnectorMetrics());
+        createInBulk("warmupBulk", WARMUP_USERS, new HistogramConnectorMetrics());
+
+        HistogramConnectorMetrics loopMetrics = new HistogramConnectorMetrics();
+        long loopNanos = createInLoop("loop", USERS, loopMetrics);
+        HistogramConnectorMetrics bulkMetrics = new HistogramConnectorMetrics();
+        long bulkNanos = createInBulk("bulk", USERS, bulkMetrics);
+
+        // the resource server has no /Bulk endpoint, so both paths cost one round trip per user
+        assertEquals(USERS, loopMetrics.getCount("createUser"));
+        assertEquals(USERS, bulkMetrics.getCount("createUser"));
+        assertTrue("bulk took " + bulkNanos / 1000000 + " ms, the loop " + loopNanos / 1000000 + " ms",
+                bulkNanos < loopNanos);
+        assertEquals(11 + 2 * (WARMUP_USERS + USERS), oConnector.getAllUsers(accessToken).size());
+    }
+
+    @Test
+    public void mixed_operations_report_per_operation_results() {
+        User createdUser = oConnector.createUser(new User.Builder("bulkUpdate").build(), accessToken);
+
+        BulkRequest request = new BulkRequest.Builder()
+                .createUser(new User.Builder("bulkCreate").build())
+                .updateUser(createdUser.getId(), new UpdateUser.Builder().updateNickName("nick").build())
+                .deleteUser(DELETE_USER_ID)
+                .deleteUser(INVALID_ID)
+                .build();
+        BulkResponse response = new BulkExecutor.Builder(oConnector).build().execute(request, accessToken);
+
+        assertEquals(201, response.getResults().get(0).getStatus());
+        assertEquals(200, response.getResults().get(1).getStatus());
+        assertEquals("nick", ((User) response.getResults().get(1).getResource()).getNickName());
+        assertEquals(204, response.getResults().get(2).getStatus());
+        assertFalse(response.getResults().get(3).isSuccessful());
+        assertEquals(1, response.getErrors());
+    }
+
+    @Test
+    public void fail_on_errors_stops_the_remaining_operations() {
+        BulkRequest request = new BulkRequest.Builder()
+                .createUser(new User.Builder("marissa").build())
+                .createUser(new User.Builder("bjensen").build())
+                .createUser(new User.Builder("neverCreated").build())
+                .setFailOnErrors(1)
+                .build();
+        BulkResponse response = new BulkExecutor.Builder(oConnector).setConcurrency(1).build()
+                .execute(request, accessToken);
+
+        assertEquals(409, response.getResults().get(0).getStatus());
+        assertTrue(response.getResults().get(0).getError() instanceof ConflictException);
+        assertFalse(response.getResults().get(1).isExecuted());
+        assertFalse(response.getResults().get(2).isExecuted());
+        assertEquals(1, response.getExecuted());
+    }
+
+    private long createInLoop(String prefix, int users, HistogramConnectorMetrics metrics) {
+        InstrumentedOsiamConnector connector = measured(metrics);
+        long start = System.nanoTime();
+        for (int count = 0; count < users; count++) {
+            connector.createUser(new User.Builder(prefix + count).build(), accessToken);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long createInBulk(String prefix, int users, HistogramConnectorMetrics metrics) {
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        for (int count = 0; count < users; count++) {
+            request.createUser(new User.Builder(prefix + count).build());
+        }
+        BulkExecutor executor = new BulkExecutor.Builder(measured(metrics)).build();
+        long start = System.nanoTime();
+        BulkResponse response = executor.execute(request.build(), accessToken);
+        long nanos = System.nanoTime() - start;
+
+        assertEquals(0, response.getErrors());
+        assertEquals(users, response.getExecuted());
+        for (BulkOperationResult result : response.getResults()) {
+            assertEquals(201, result.getStatus());
+        }
+        return nanos;
+    }
+
+    private InstrumentedOsiamConnector measured(HistogramConnectorMetrics metrics) {
+        return new InstrumentedOsiamConnector.Builder(oConnector.getConnector()).setMetrics(metrics).build();
+    }
+}
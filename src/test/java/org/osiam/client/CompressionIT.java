@@ -0,0 +1,70 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class CompressionIT extends AbstractIntegrationTestBase {
+
+    private static final String USERS = "/Users?count=100";
+
+    @Test
+    public void responses_are_gzipped_on_request() throws Exception {
+        HttpGet httpGet = get(USERS);
+        httpGet.addHeader("Accept-Encoding", "gzip");
+
+        HttpResponse response = SharedHttpConnectionPool.getDefault().newHttpClient().execute(httpGet);
+        byte[] compressed = EntityUtils.toByteArray(response.getEntity());
+
+        assertEquals("gzip", response.getFirstHeader("Content-Encoding").getValue());
+        assertTrue(compressed.length < identityBody().length());
+    }
+
+    @Test
+    public void responses_are_not_compressed_without_accept_encoding() throws Exception {
+        HttpResponse response = SharedHttpConnectionPool.getDefault().newHttpClient().execute(get(USERS));
+        EntityUtils.consume(response.getEntity());
+
+        assertNull(response.getFirstHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void the_compressing_client_decompresses_transparently() throws Exception {
+        HttpClient httpClient = SharedHttpConnectionPool.getDefault().newCompressingHttpClient();
+
+        HttpResponse response = httpClient.execute(get(USERS));
+
+        assertEquals(identityBody(), EntityUtils.toString(response.getEntity(), "UTF-8"));
+    }
+
+    private String identityBody() throws Exception {
+        HttpResponse response = SharedHttpConnectionPool.getDefault().newHttpClient().execute(get(USERS));
+        return EntityUtils.toString(response.getEntity(), "UTF-8");
+    }
+
+    private HttpGet get(String path) {
+        HttpGet httpGet = new HttpGet(RESOURCE_ENDPOINT_ADDRESS + path);
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        return httpGet;
+    }
+}
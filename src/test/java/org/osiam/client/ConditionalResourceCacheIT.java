@@ -0,0 +1,112 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.cache.ConditionalResourceCache;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.exception.NoResultException;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class ConditionalResourceCacheIT extends AbstractIntegrationTestBase {
+
+    private ConditionalResourceCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ConditionalResourceCache.Builder(oConnector, RESOURCE_ENDPOINT_ADDRESS).setMaxEntries(2).build();
+    }
+
+    @Test
+    public void the_server_answers_matching_etags_with_not_modified() throws Exception {
+        HttpResponse first = get(null);
+        String etag = first.getFirstHeader("ETag").getValue();
+
+        HttpResponse second = get(etag);
+
+        assertEquals(304, second.getStatusLine().getStatusCode());
+    }
+
+    @Test
+    public void repeated_reads_are_revalidated_with_not_modified() {
+        assumeEtags();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(VALID_USER_ID, cache.getUser(VALID_USER_ID, accessToken).getId());
+        }
+
+        assertEquals(1, cache.getFetched());
+        assertEquals(9, cache.getNotModified());
+    }
+
+    @Test
+    public void a_changed_user_is_fetched_again() {
+        assumeEtags();
+        cache.getUser(VALID_USER_ID, accessToken);
+        oConnector.updateUser(VALID_USER_ID, new UpdateUser.Builder().updateNickName("changed").build(),
+                accessToken);
+
+        User user = cache.getUser(VALID_USER_ID, accessToken);
+
+        assertEquals("changed", user.getNickName());
+        assertEquals(2, cache.getFetched());
+    }
+
+    @Test
+    public void the_least_recently_read_resource_is_evicted() {
+        assumeEtags();
+        cache.getUser(VALID_USER_ID, accessToken);
+        cache.getGroup(VALID_GROUP_ID, accessToken);
+        cache.getUser(DELETE_USER_ID, accessToken);
+
+        cache.getUser(VALID_USER_ID, accessToken);
+
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getFetched());
+    }
+
+    @Test(expected = NoResultException.class)
+    public void a_deleted_user_is_not_returned_from_the_cache() {
+        cache.getUser(DELETE_USER_ID, accessToken);
+        oConnector.deleteUser(DELETE_USER_ID, accessToken);
+
+        cache.getUser(DELETE_USER_ID, accessToken);
+    }
+
+    private void assumeEtags() {
+        try {
+            assumeTrue(get(null).getFirstHeader("ETag") != null);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse get(String ifNoneMatch) throws Exception {
+        HttpGet httpGet = new HttpGet(RESOURCE_ENDPOINT_ADDRESS + "/Users/" + VALID_USER_ID);
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        if (ifNoneMatch != null) {
+            httpGet.addHeader("If-None-Match", ifNoneMatch);
+        }
+        HttpResponse response = SharedHttpConnectionPool.getDefault().newHttpClient().execute(httpGet);
+        EntityUtils.consume(response.getEntity());
+        return response;
+    }
+}
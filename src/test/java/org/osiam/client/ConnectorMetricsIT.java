@@ -0,0 +1,122 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.metrics.HistogramConnectorMetrics;
+import org.osiam.client.metrics.InstrumentedOsiamConnector;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+import org.osiam.client.paging.PagedResources;
+import org.osiam.client.streaming.ResourceHandler;
+import org.osiam.client.streaming.StreamingSearch;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class ConnectorMetricsIT extends AbstractIntegrationTestBase {
+
+    private HistogramConnectorMetrics metrics;
+    private InstrumentedOsiamConnector connector;
+
+    @Before
+    public void setUp() {
+        metrics = new HistogramConnectorMetrics();
+        connector = new InstrumentedOsiamConnector.Builder(oConnector.getConnector())
+                .setMetrics(metrics).build();
+    }
+
+    @Test
+    public void successful_calls_are_timed_per_operation() {
+        connector.getUser(VALID_USER_ID, accessToken);
+        connector.getUser(VALID_USER_ID, accessToken);
+        connector.searchUsers("count=100&startIndex=1", accessToken);
+
+        assertEquals(2, metrics.getStatusCount("getUser", 200));
+        assertEquals(1, metrics.getCount("searchUsers"));
+        assertTrue(metrics.getPercentile("getUser", 100.0) > 0);
+    }
+
+    @Test
+    public void failed_calls_are_counted_with_their_status() {
+        try {
+            connector.getUser(INVALID_ID, accessToken);
+            fail("exception expected");
+        } catch (RuntimeException e) {
+            assertEquals(1, metrics.getStatusCount("getUser", 404));
+        }
+    }
+
+    @Test
+    public void creates_and_token_retrievals_are_counted() {
+        User user = connector.createUser(new User.Builder("metricsUser").build(), accessToken);
+        connector.deleteUser(user.getId(), accessToken);
+        connector.retrieveAccessToken();
+
+        assertEquals(1, metrics.getStatusCount("createUser", 201));
+        assertEquals(1, metrics.getStatusCount("deleteUser", 204));
+        assertEquals(1, metrics.getAccessTokensRetrieved());
+    }
+
+    @Test
+    public void calls_without_a_response_are_counted_with_status_0() {
+        OsiamConnector noServer = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint("http://" + TestEnvironment.HOST + ":1/osiam-resource-server").
+                setClientId(CLIENT_ID).
+                setClientSecret(CLIENT_SECRET).
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(Scope.ALL).build();
+        InstrumentedOsiamConnector unreachable = new InstrumentedOsiamConnector.Builder(noServer)
+                .setMetrics(metrics).build();
+        try {
+            unreachable.getUser(VALID_USER_ID, accessToken);
+            fail("exception expected");
+        } catch (RuntimeException e) {
+            assertEquals(1, metrics.getStatusCount("getUser", 0));
+        }
+    }
+
+    @Test
+    public void calls_of_helpers_are_measured_through_the_wrapper() {
+        for (User user : PagedResources.users(connector, accessToken).build()) {
+            assertNotNull(user.getId());
+        }
+
+        assertTrue(metrics.getCount("searchUsers") > 0);
+    }
+
+    @Test
+    public void helpers_with_their_own_client_report_the_bytes_they_receive() {
+        StreamingSearch search = new StreamingSearch.Builder(RESOURCE_ENDPOINT_ADDRESS).setMetrics(metrics).build();
+
+        long totalResults = search.searchUsers("count=100", accessToken, new ResourceHandler<User>() {
+            @Override
+            public void handle(User user) {
+                assertNotNull(user.getId());
+            }
+        });
+
+        assertTrue(totalResults > 0);
+        assertTrue(metrics.getBytesReceived("streamingSearchUsers") > 0);
+        assertEquals(0, metrics.getBytesSent("streamingSearchUsers"));
+    }
+}
@@ -0,0 +1,89 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.membership.GroupMembership;
+import org.osiam.client.server.FaultInjectingProxy;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.MultiValuedAttribute;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class GroupMembershipIT extends AbstractIntegrationTestBase {
+
+    private static final String ID_USER_HSIMPSON = "7d33bcbe-a54c-43d8-867e-f6146164941e";
+
+    // counts the requests of the membership helper, it fails none
+    private static FaultInjectingProxy proxy;
+
+    @BeforeClass
+    public static void startProxy() throws Exception {
+        proxy = new FaultInjectingProxy();
+        proxy.start();
+    }
+
+    @AfterClass
+    public static void stopProxy() throws Exception {
+        proxy.stop();
+    }
+
+    @Test
+    public void an_added_member_keeps_the_existing_ones() {
+        Set<String> before = memberIds();
+        GroupMembership membership = new GroupMembership.Builder(RESOURCE_ENDPOINT_ADDRESS).build();
+
+        membership.addMembers(VALID_GROUP_ID, Arrays.asList(ID_USER_HSIMPSON), accessToken);
+
+        Set<String> after = memberIds();
+        assertTrue(after.contains(ID_USER_HSIMPSON));
+        assertTrue(after.containsAll(before));
+    }
+
+    @Test
+    public void members_are_removed_in_batches() {
+        GroupMembership membership = new GroupMembership.Builder(proxy.getResourceEndpoint()).setBatchSize(1).build();
+        membership.addMembers(VALID_GROUP_ID, Arrays.asList(ID_USER_HSIMPSON, VALID_USER_ID), accessToken);
+        int members = memberIds().size();
+        int requests = proxy.getRequests();
+
+        membership.removeMembers(VALID_GROUP_ID, Arrays.asList(ID_USER_HSIMPSON, VALID_USER_ID), accessToken);
+
+        // one PATCH per batch of one member
+        assertEquals(requests + 2, proxy.getRequests());
+        Set<String> after = memberIds();
+        assertFalse(after.contains(ID_USER_HSIMPSON));
+        assertFalse(after.contains(VALID_USER_ID));
+        assertEquals(members - 2, after.size());
+    }
+
+    private Set<String> memberIds() {
+        Group group = oConnector.getGroup(VALID_GROUP_ID, accessToken);
+        Set<String> ids = new HashSet<>();
+        if (group.getMembers() != null) {
+            for (MultiValuedAttribute member : group.getMembers()) {
+                ids.add(String.valueOf(member.getValue()));
+            }
+        }
+        return ids;
+    }
+}
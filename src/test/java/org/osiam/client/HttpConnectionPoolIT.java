@@ -0,0 +1,94 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class HttpConnectionPoolIT extends AbstractIntegrationTestBase {
+
+    private static final int CALLS = 200;
+    private static final int THREADS = 8;
+
+    private final SharedHttpConnectionPool pool = new SharedHttpConnectionPool.Builder().build();
+
+    @After
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void sequential_get_user_calls_reuse_one_connection() throws Exception {
+        DefaultHttpClient httpClient = pool.newHttpClient();
+
+        for (int i = 0; i < CALLS; i++) {
+            getUser(httpClient);
+        }
+
+        assertEquals(1, pool.getConnectionsCreated());
+        assertEquals(0, pool.getTotalStats().getLeased());
+    }
+
+    @Test
+    public void clients_sharing_the_pool_share_its_connections() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        DefaultHttpClient httpClient = pool.newHttpClient();
+                        for (int j = 0; j < CALLS / THREADS; j++) {
+                            getUser(httpClient);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue("Opened " + pool.getConnectionsCreated() + " connections for " + CALLS + " calls",
+                pool.getConnectionsCreated() <= THREADS);
+        assertEquals(0, pool.getTotalStats().getLeased());
+    }
+
+    private void getUser(DefaultHttpClient httpClient) throws Exception {
+        HttpGet httpGet = new HttpGet(RESOURCE_ENDPOINT_ADDRESS + "/Users/" + VALID_USER_ID);
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        HttpResponse response = httpClient.execute(httpGet);
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        EntityUtils.consume(response.getEntity());
+    }
+}
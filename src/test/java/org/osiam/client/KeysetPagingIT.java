@@ -0,0 +1,108 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.paging.KeysetPaging;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class KeysetPagingIT extends AbstractIntegrationTestBase {
+
+    private static final int ITEMS_PER_PAGE = 3;
+
+    @Test
+    public void keyset_pages_return_the_users_in_the_order_of_a_sorted_search() {
+        KeysetPaging<User> paging = KeysetPaging.users(oConnector, accessToken).setCount(ITEMS_PER_PAGE).build();
+
+        assertEquals(sortedUserNames("ascending"), userNames(paging));
+    }
+
+    @Test
+    public void keyset_pages_can_be_descending() {
+        KeysetPaging<User> paging = KeysetPaging.users(oConnector, accessToken)
+                .setCount(ITEMS_PER_PAGE).setDescending(true).build();
+
+        assertEquals(sortedUserNames("descending"), userNames(paging));
+    }
+
+    @Test
+    public void a_deleted_last_user_does_not_shift_the_next_page() {
+        KeysetPaging<User> paging = KeysetPaging.users(oConnector, accessToken).setCount(ITEMS_PER_PAGE).build();
+        List<String> expected = sortedUserNames("ascending");
+
+        KeysetPaging.Page<User> first = paging.first();
+        User last = first.getResources().get(ITEMS_PER_PAGE - 1);
+        oConnector.deleteUser(last.getId(), accessToken);
+        KeysetPaging.Page<User> second = paging.next(first.getContinuationToken());
+
+        assertEquals(expected.get(ITEMS_PER_PAGE), second.getResources().get(0).getUserName());
+    }
+
+    @Test
+    public void paging_can_continue_after_a_known_user() {
+        KeysetPaging<User> paging = KeysetPaging.users(oConnector, accessToken).setCount(ITEMS_PER_PAGE).build();
+        List<String> expected = sortedUserNames("ascending");
+        User marissa = oConnector.getUser(VALID_USER_ID, accessToken);
+
+        KeysetPaging.Page<User> page = paging.next(paging.continueAfter(marissa));
+
+        String next = expected.get(expected.indexOf(marissa.getUserName()) + 1);
+        assertEquals(next, page.getResources().get(0).getUserName());
+    }
+
+    @Test
+    public void the_last_page_has_no_continuation_token() {
+        KeysetPaging<User> paging = KeysetPaging.users(oConnector, accessToken).setCount(100).build();
+
+        assertFalse(paging.first().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void a_token_of_another_search_is_rejected() {
+        KeysetPaging<User> ascending = KeysetPaging.users(oConnector, accessToken).setCount(ITEMS_PER_PAGE).build();
+        KeysetPaging<User> descending = KeysetPaging.users(oConnector, accessToken)
+                .setCount(ITEMS_PER_PAGE).setDescending(true).build();
+
+        descending.next(ascending.first().getContinuationToken());
+    }
+
+    private List<String> userNames(KeysetPaging<User> paging) {
+        List<String> userNames = new ArrayList<>();
+        KeysetPaging.Page<User> page = paging.first();
+        while (true) {
+            for (User user : page.getResources()) {
+                userNames.add(user.getUserName());
+            }
+            if (!page.hasNext()) {
+                return userNames;
+            }
+            page = paging.next(page.getContinuationToken());
+        }
+    }
+
+    private List<String> sortedUserNames(String sortOrder) {
+        List<String> userNames = new ArrayList<>();
+        for (User user : oConnector.searchUsers("sortBy=userName&sortOrder=" + sortOrder + "&count=100&startIndex=1",
+                accessToken).getResources()) {
+            userNames.add(user.getUserName());
+        }
+        return userNames;
+    }
+}
@@ -1,31 +1,36 @@
 package org.osiam.client;
 
+import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
 import org.osiam.client.exception.ConflictException;
 import org.osiam.client.exception.UnauthorizedException;
 import org.osiam.client.oauth.AccessToken;
 import org.osiam.client.oauth.GrantType;
 import org.osiam.client.oauth.Scope;
+import org.osiam.client.server.EmbeddedOsiamRule;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 
-import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/context.xml")
 @TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
-        DbUnitTestExecutionListener.class})
+        DatabaseSnapshotTestExecutionListener.class})
 @DatabaseSetup("/database_seed.xml")
 public class LoginClientCredentialsIT {
 
-    protected static final String AUTH_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-auth-server";
-    protected static final String RESOURCE_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-resource-server";
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
+    protected static final String AUTH_ENDPOINT_ADDRESS = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
+    protected static final String RESOURCE_ENDPOINT_ADDRESS = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS;
     protected String clientId = "example-client";
     protected String clientSecret = "secret";
     protected OsiamConnector oConnector;
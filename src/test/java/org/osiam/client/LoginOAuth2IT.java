@@ -1,6 +1,5 @@
 package org.osiam.client;
 
-import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 import org.apache.http.Header;
 import org.apache.http.HeaderElement;
@@ -14,15 +13,19 @@ import org.apache.http.client.params.CookiePolicy;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
 import org.osiam.client.exception.ConflictException;
 import org.osiam.client.exception.ForbiddenException;
+import org.osiam.client.http.SharedHttpConnectionPool;
 import org.osiam.client.oauth.AccessToken;
 import org.osiam.client.oauth.GrantType;
 import org.osiam.client.oauth.Scope;
+import org.osiam.client.server.EmbeddedOsiamRule;
 import org.osiam.resources.scim.User;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
@@ -39,12 +42,15 @@ import static org.junit.Assert.*;
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/context.xml")
 @TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
-        DbUnitTestExecutionListener.class})
+        DatabaseSnapshotTestExecutionListener.class})
 @DatabaseSetup("/database_seed.xml")
 public class LoginOAuth2IT {
 
-    protected static final String AUTH_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-auth-server";
-    protected static final String RESOURCE_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-resource-server";
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
+    protected static final String AUTH_ENDPOINT_ADDRESS = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
+    protected static final String RESOURCE_ENDPOINT_ADDRESS = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS;
     private static String CLIENT_ID = "example-client";
     private static String CLIENT_SECRET = "secret";
     private static String REDIRECT_URI = "http://localhost:5000/oauth2";
@@ -66,7 +72,7 @@ public class LoginOAuth2IT {
                 .build();
 
         loginUri = oConnector.getRedirectLoginUri();
-        defaultHttpClient = new DefaultHttpClient();
+        defaultHttpClient = SharedHttpConnectionPool.getDefault().newHttpClient();
     }
 
     @Test
@@ -12,6 +12,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
 import org.osiam.client.exception.UnauthorizedException;
 import org.osiam.client.oauth.GrantType;
 import org.osiam.client.oauth.Scope;
@@ -23,14 +24,13 @@ import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 
-import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/context.xml")
 @TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
-        DbUnitTestExecutionListener.class})
+        DatabaseSnapshotTestExecutionListener.class})
 @DatabaseSetup("/database_seed.xml")
 @Ignore("/User/me is no longer available and '/me' is not yet supported by connector")
 public class MeUserServiceIT extends AbstractIntegrationTestBase {
@@ -175,7 +175,7 @@ public class MeUserServiceIT extends AbstractIntegrationTestBase {
                 setUserName("bjensen").
                 setPassword("koala").
                 setScope(Scope.ALL);
-        oConnector = authBuilder.build();
+        oConnector = instrument(authBuilder.build());
         accessToken = oConnector.retrieveAccessToken();
     }
 
@@ -189,7 +189,7 @@ public class MeUserServiceIT extends AbstractIntegrationTestBase {
                 setUserName("hsimpson").
                 setPassword("koala").
                 setScope(Scope.ALL);
-        oConnector = authBuilder.build();
+        oConnector = instrument(authBuilder.build());
         accessToken = oConnector.retrieveAccessToken();
     }
 
@@ -0,0 +1,74 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.paging.PagedResources;
+import org.osiam.client.query.Query;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class PagedResourcesIT extends AbstractIntegrationTestBase {
+
+    private static final int ITEMS_PER_PAGE = 3;
+
+    @Test
+    public void iterating_small_pages_returns_all_users_once() {
+        Query firstPage = new Query.Builder(User.class).setStartIndex(1).setCountPerPage(ITEMS_PER_PAGE).build();
+        PagedResources<User> users = PagedResources.users(oConnector, accessToken)
+                .setQuery(firstPage).setBufferedPages(1).build();
+
+        Set<String> ids = new HashSet<>();
+        int count = 0;
+        for (User user : users) {
+            ids.add(user.getId());
+            count++;
+        }
+
+        assertEquals(oConnector.getAllUsers(accessToken).size(), count);
+        assertEquals(count, ids.size());
+    }
+
+    @Test
+    public void iterating_returns_all_groups() {
+        Query firstPage = new Query.Builder(Group.class).setStartIndex(1).setCountPerPage(1).build();
+        PagedResources<Group> groups = PagedResources.groups(oConnector, accessToken).setQuery(firstPage).build();
+
+        Set<String> ids = new HashSet<>();
+        for (Group group : groups) {
+            ids.add(group.getId());
+        }
+
+        assertEquals(oConnector.getAllGroups(accessToken).size(), ids.size());
+    }
+
+    @Test
+    public void an_iteration_can_be_abandoned() {
+        Query firstPage = new Query.Builder(User.class).setStartIndex(1).setCountPerPage(1).build();
+        PagedResources.PagingIterator<User> iterator = PagedResources.users(oConnector, accessToken)
+                .setQuery(firstPage).build().iterator();
+
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        iterator.close();
+
+        assertTrue(!iterator.hasNext());
+    }
+}
@@ -0,0 +1,101 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.paging.PagedResources;
+import org.osiam.client.paging.ParallelPageScan;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.SortOrder;
+import org.osiam.client.query.metamodel.User_;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class ParallelPageScanIT extends AbstractIntegrationTestBase {
+
+    private static final int ITEMS_PER_PAGE = 7;
+
+    @Test
+    public void parallel_pages_are_reassembled_in_order() {
+        create100NewUser();
+        Query firstPage = sortedFirstPage();
+
+        List<User> parallel = ParallelPageScan.users(oConnector, accessToken)
+                .setQuery(firstPage).setConcurrency(4).build().fetchAll();
+
+        List<String> serialUserNames = new ArrayList<>();
+        for (User user : PagedResources.users(oConnector, accessToken).setQuery(firstPage).build()) {
+            serialUserNames.add(user.getUserName());
+        }
+        assertEquals(111, parallel.size());
+        assertEquals(serialUserNames, userNames(parallel));
+    }
+
+    @Test
+    public void unordered_scan_delivers_every_user_once() {
+        create100NewUser();
+        final Set<String> ids = new HashSet<>();
+        final List<Integer> pageNumbers = new ArrayList<>();
+
+        ParallelPageScan.users(oConnector, accessToken).setQuery(sortedFirstPage()).setConcurrency(8).build()
+                .scan(new ParallelPageScan.PageHandler<User>() {
+                    @Override
+                    public void handle(int pageNumber, List<User> resources) {
+                        pageNumbers.add(pageNumber);
+                        for (User user : resources) {
+                            ids.add(user.getId());
+                        }
+                    }
+                });
+
+        assertEquals(111, ids.size());
+        assertEquals((111 + ITEMS_PER_PAGE - 1) / ITEMS_PER_PAGE, pageNumbers.size());
+    }
+
+    @Test
+    public void all_groups_are_scanned() {
+        Query firstPage = new Query.Builder(Group.class).setStartIndex(1).setCountPerPage(1).build();
+
+        List<Group> groups = ParallelPageScan.groups(oConnector, accessToken).setQuery(firstPage).build().fetchAll();
+
+        assertEquals(oConnector.getAllGroups(accessToken).size(), groups.size());
+    }
+
+    private Query sortedFirstPage() {
+        return new Query.Builder(User.class).setStartIndex(1).setCountPerPage(ITEMS_PER_PAGE)
+                .setSortBy(User_.userName).setSortOrder(SortOrder.ASCENDING).build();
+    }
+
+    private List<String> userNames(List<User> users) {
+        List<String> userNames = new ArrayList<>();
+        for (User user : users) {
+            userNames.add(user.getUserName());
+        }
+        return userNames;
+    }
+
+    private void create100NewUser() {
+        for (int count = 0; count < 100; count++) {
+            User user = new User.Builder("user" + count).build();
+            oConnector.createUser(user, accessToken);
+        }
+    }
+}
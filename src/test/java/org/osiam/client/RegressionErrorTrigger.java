@@ -1,6 +1,5 @@
 package org.osiam.client;
 
-import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
@@ -9,9 +8,13 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.message.BasicNameValuePair;
+import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.server.EmbeddedOsiamRule;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -25,13 +28,16 @@ import static org.junit.Assert.assertFalse;
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/context.xml")
 @TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
-        DbUnitTestExecutionListener.class})
+        DatabaseSnapshotTestExecutionListener.class})
 @DatabaseSetup("/database_seed.xml")
 public class RegressionErrorTrigger {
 
-    protected static final String AUTH_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-auth-server";
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
+    protected static final String AUTH_ENDPOINT_ADDRESS = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
     private final String loginUri = AUTH_ENDPOINT_ADDRESS + "/oauth/authorize?client_id=example-client&response_type=code&redirect_uri=http%3A%2F%2Flocalhost%3A5000%2Foauth2&scope=GET+POST+PUT+PATCH+DELETE";
-    private DefaultHttpClient defaultHttpClient = new DefaultHttpClient();
+    private DefaultHttpClient defaultHttpClient = SharedHttpConnectionPool.getDefault().newHttpClient();
 
     @Test
     @Ignore("Not in use at this point")
@@ -0,0 +1,220 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.exception.ConflictException;
+import org.osiam.client.metrics.HistogramConnectorMetrics;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+import org.osiam.client.resilience.CircuitBreaker;
+import org.osiam.client.resilience.CircuitOpenException;
+import org.osiam.client.resilience.ResilientOsiamConnector;
+import org.osiam.client.resilience.RetryPolicy;
+import org.osiam.client.server.FaultInjectingProxy;
+import org.osiam.client.server.FaultInjectingProxy.Fault;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class ResilienceIT extends AbstractIntegrationTestBase {
+
+    private static FaultInjectingProxy proxy;
+
+    private final HistogramConnectorMetrics metrics = new HistogramConnectorMetrics();
+
+    @BeforeClass
+    public static void startProxy() throws Exception {
+        proxy = new FaultInjectingProxy();
+        proxy.start();
+    }
+
+    @AfterClass
+    public static void stopProxy() throws Exception {
+        proxy.stop();
+    }
+
+    @After
+    public void clearFaults() {
+        proxy.clear();
+    }
+
+    @Test
+    public void unavailable_server_is_retried_with_backoff() {
+        ResilientOsiamConnector connector = givenAConnector(retries(3), breaker("resource server", 5));
+        proxy.inject(Fault.SERVICE_UNAVAILABLE, 2);
+
+        User user = connector.getUser(VALID_USER_ID, accessToken);
+
+        assertEquals(VALID_USER_ID, user.getId());
+        assertEquals(2, metrics.getRetries("getUser"));
+    }
+
+    @Test
+    public void reset_connection_is_retried() {
+        ResilientOsiamConnector connector = givenAConnector(retries(5), breaker("resource server", 10));
+        // the HTTP client of the connector may repeat a reset GET by itself before the call fails
+        proxy.inject(Fault.CONNECTION_RESET, 4);
+
+        User user = connector.getUser(VALID_USER_ID, accessToken);
+
+        assertEquals(VALID_USER_ID, user.getId());
+        assertTrue(metrics.getRetries("getUser") >= 1);
+    }
+
+    @Test
+    public void updates_are_not_retried() {
+        ResilientOsiamConnector connector = givenAConnector(retries(3), breaker("resource server", 5));
+        proxy.inject(Fault.SERVICE_UNAVAILABLE, 1);
+        int requests = proxy.getRequests();
+
+        try {
+            connector.updateUser(VALID_USER_ID, new UpdateUser.Builder().updateNickName("retried").build(),
+                    accessToken);
+            fail("exception expected");
+        } catch (RuntimeException e) {
+            assertEquals(requests + 1, proxy.getRequests());
+            assertEquals(0, metrics.getRetries("updateUser"));
+        }
+    }
+
+    @Test
+    public void client_errors_are_not_retried_and_do_not_open_the_breaker() {
+        ResilientOsiamConnector connector = givenAConnector(retries(3), breaker("resource server", 1));
+
+        try {
+            connector.createUser(new User.Builder("marissa").build(), accessToken);
+            fail("exception expected");
+        } catch (ConflictException e) {
+            assertEquals(CircuitBreaker.State.CLOSED, connector.getResourceServerBreaker().getState());
+        }
+        try {
+            connector.getUser(INVALID_ID, accessToken);
+            fail("exception expected");
+        } catch (RuntimeException e) {
+            assertEquals(0, metrics.getRetries("getUser"));
+            assertEquals(CircuitBreaker.State.CLOSED, connector.getResourceServerBreaker().getState());
+        }
+    }
+
+    @Test
+    public void bad_requests_are_not_retried_and_do_not_open_the_breaker() {
+        ResilientOsiamConnector connector = givenAConnector(retries(3), breaker("resource server", 1));
+        proxy.inject(Fault.BAD_REQUEST, 3);
+        int requests = proxy.getRequests();
+
+        try {
+            connector.getUser(VALID_USER_ID, accessToken);
+            fail("exception expected");
+        } catch (RuntimeException e) {
+            assertEquals(requests + 1, proxy.getRequests());
+            assertEquals(0, metrics.getRetries("getUser"));
+            assertEquals(CircuitBreaker.State.CLOSED, connector.getResourceServerBreaker().getState());
+        }
+    }
+
+    @Test
+    public void open_breaker_fails_fast_without_calling_the_server() {
+        ResilientOsiamConnector connector = givenAConnector(RetryPolicy.NONE, breaker("resource server", 3));
+        proxy.inject(Fault.SERVICE_UNAVAILABLE, 10);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                connector.getUser(VALID_USER_ID, accessToken);
+                fail("exception expected");
+            } catch (RuntimeException expected) {
+            }
+        }
+        int requests = proxy.getRequests();
+        try {
+            connector.getUser(VALID_USER_ID, accessToken);
+            fail("exception expected");
+        } catch (CircuitOpenException e) {
+            assertEquals(CircuitBreaker.State.OPEN, connector.getResourceServerBreaker().getState());
+            assertEquals(requests, proxy.getRequests());
+        }
+    }
+
+    @Test
+    public void half_open_breaker_closes_after_a_successful_trial() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker.Builder("resource server")
+                .setFailureThreshold(1).setOpenDuration(200, TimeUnit.MILLISECONDS).build();
+        ResilientOsiamConnector connector = givenAConnector(RetryPolicy.NONE, breaker);
+        proxy.inject(Fault.SERVICE_UNAVAILABLE, 1);
+        try {
+            connector.getUser(VALID_USER_ID, accessToken);
+            fail("exception expected");
+        } catch (RuntimeException expected) {
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(300);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        connector.getUser(VALID_USER_ID, accessToken);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void auth_server_breaker_is_independent_of_the_resource_server() {
+        ResilientOsiamConnector connector = givenAConnector(RetryPolicy.NONE, breaker("resource server", 1));
+        proxy.inject("/osiam-resource-server", Fault.SERVICE_UNAVAILABLE, 1);
+        try {
+            connector.getUser(VALID_USER_ID, accessToken);
+            fail("exception expected");
+        } catch (RuntimeException expected) {
+        }
+
+        assertNotNull(connector.retrieveAccessToken());
+        assertEquals(CircuitBreaker.State.OPEN, connector.getResourceServerBreaker().getState());
+        assertEquals(CircuitBreaker.State.CLOSED, connector.getAuthServerBreaker().getState());
+    }
+
+    private ResilientOsiamConnector givenAConnector(RetryPolicy retryPolicy, CircuitBreaker resourceServer) {
+        OsiamConnector connector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(proxy.getAuthEndpoint()).
+                setResourceEndpoint(proxy.getResourceEndpoint()).
+                setClientId(CLIENT_ID).
+                setClientSecret(CLIENT_SECRET).
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(Scope.ALL).build();
+        return new ResilientOsiamConnector.Builder(connector)
+                .setRetryPolicy(retryPolicy)
+                .setResourceServerBreaker(resourceServer)
+                .setMetrics(metrics)
+                .build();
+    }
+
+    private static RetryPolicy retries(int maxAttempts) {
+        return new RetryPolicy.Builder().setMaxAttempts(maxAttempts)
+                .setBackoff(10, 50, TimeUnit.MILLISECONDS).build();
+    }
+
+    private static CircuitBreaker breaker(String name, int failureThreshold) {
+        return new CircuitBreaker.Builder(name).setFailureThreshold(failureThreshold)
+                .setOpenDuration(1, TimeUnit.MINUTES).build();
+    }
+}
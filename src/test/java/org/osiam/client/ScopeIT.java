@@ -1,15 +1,18 @@
 package org.osiam.client;
 
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
 import org.osiam.client.exception.ForbiddenException;
 import org.osiam.client.oauth.AccessToken;
 import org.osiam.client.oauth.GrantType;
 import org.osiam.client.oauth.Scope;
 import org.osiam.client.query.Query;
+import org.osiam.client.server.EmbeddedOsiamRule;
 import org.osiam.client.update.UpdateGroup;
 import org.osiam.client.update.UpdateUser;
 import org.osiam.resources.scim.Group;
@@ -19,20 +22,22 @@ import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 
-import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/context.xml")
 @TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
-        DbUnitTestExecutionListener.class})
+        DatabaseSnapshotTestExecutionListener.class})
 @DatabaseSetup("/database_seed.xml")
 public class ScopeIT {
 
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
     static final private String VALID_USER_ID = "834b410a-943b-4c80-817a-4465aed037bc";
     static final private String VALID_GROUP_ID = "69e1a5dc-89be-4343-976c-b5541af249f4";
-    protected static final String AUTH_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-auth-server";
-    protected static final String RESOURCE_ENDPOINT_ADDRESS = "http://localhost:8180/osiam-resource-server";
+    protected static final String AUTH_ENDPOINT_ADDRESS = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
+    protected static final String RESOURCE_ENDPOINT_ADDRESS = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS;
     private static String CLIENT_ID = "example-client";
     private static String CLIENT_SECRET = "secret";
     private OsiamConnector oConnector;
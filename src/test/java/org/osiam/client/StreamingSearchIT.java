@@ -0,0 +1,103 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.streaming.ResourceHandler;
+import org.osiam.client.streaming.StreamingSearch;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class StreamingSearchIT extends AbstractIntegrationTestBase {
+
+    private static final String ALL = "count=100&startIndex=1&sortBy=userName";
+
+    private StreamingSearch streamingSearch;
+
+    @Before
+    public void setUp() {
+        streamingSearch = new StreamingSearch.Builder(RESOURCE_ENDPOINT_ADDRESS).build();
+    }
+
+    @Test
+    public void streamed_users_equal_those_of_the_connector() {
+        QueryResult<User> expected = oConnector.searchUsers(ALL, accessToken);
+        final List<User> users = new ArrayList<>();
+
+        long totalResults = streamingSearch.searchUsers(ALL, accessToken, new ResourceHandler<User>() {
+            @Override
+            public void handle(User user) {
+                users.add(user);
+            }
+        });
+
+        assertEquals(expected.getTotalResults(), totalResults);
+        assertEquals(expected.getResources().size(), users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            User expectedUser = expected.getResources().get(i);
+            assertEquals(expectedUser.getId(), user.getId());
+            assertEquals(expectedUser.getUserName(), user.getUserName());
+            assertEquals(expectedUser.getEmails().size(), user.getEmails().size());
+        }
+    }
+
+    @Test
+    public void streamed_groups_equal_those_of_the_connector() {
+        QueryResult<Group> expected = oConnector.searchGroups("count=100&startIndex=1", accessToken);
+
+        List<String> ids = new ArrayList<>();
+        try (StreamingSearch.ResourceIterator<Group> groups =
+                     streamingSearch.iterateGroups("count=100&startIndex=1", accessToken)) {
+            while (groups.hasNext()) {
+                ids.add(groups.next().getId());
+            }
+        }
+
+        assertEquals(expected.getResources().size(), ids.size());
+        assertEquals(expected.getResources().get(0).getId(), ids.get(0));
+    }
+
+    @Test
+    public void a_search_matching_nothing_streams_nothing() {
+        StreamingSearch.ResourceIterator<User> users =
+                streamingSearch.iterateUsers("filter=" + encodeExpected("userName eq \"nobody\""), accessToken);
+
+        assertFalse(users.hasNext());
+        assertEquals(0, users.getTotalResults());
+    }
+
+    @Test
+    public void an_abandoned_iterator_releases_its_connection() {
+        for (int i = 0; i < 50; i++) {
+            StreamingSearch.ResourceIterator<User> users = streamingSearch.iterateUsers(ALL, accessToken);
+            assertTrue(users.hasNext());
+            users.next();
+            users.close();
+        }
+
+        try (StreamingSearch.ResourceIterator<User> users = streamingSearch.iterateUsers(ALL, accessToken)) {
+            assertTrue(users.hasNext());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.osiam.client;
+
+/**
+ * The endpoints of the OSIAM instance under test, taken from system properties so parallel test forks can each talk
+ * to their own server:
+ * <ul>
+ * <li>osiam.test.host: default localhost</li>
+ * <li>osiam.test.port: default 8180 plus the fork number given in osiam.test.fork, if any</li>
+ * <li>osiam.test.embedded: whether the test JVM starts its own servers, see
+ * {@link org.osiam.client.server.EmbeddedOsiam}: true, false or auto (the default), which starts them only if
+ * nothing is listening on the port yet</li>
+ * </ul>
+ */
+public final class TestEnvironment {
+
+    public static final String HOST = System.getProperty("osiam.test.host", "localhost");
+    public static final int PORT = Integer.getInteger("osiam.test.port",
+            8180 + Integer.getInteger("osiam.test.fork", 0));
+    public static final String AUTH_ENDPOINT_ADDRESS = "http://" + HOST + ":" + PORT + "/osiam-auth-server";
+    public static final String RESOURCE_ENDPOINT_ADDRESS = "http://" + HOST + ":" + PORT + "/osiam-resource-server";
+    public static final String EMBEDDED = System.getProperty("osiam.test.embedded", "auto");
+
+    private TestEnvironment() {
+    }
+}
@@ -0,0 +1,79 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.exception.UnauthorizedException;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class TokenValidationCacheIT extends AbstractIntegrationTestBase {
+
+    private static final HttpClient HTTP_CLIENT = SharedHttpConnectionPool.getDefault().newHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void repeated_requests_with_the_same_token_are_validated_once() throws IOException {
+        // the token may already be cached by an earlier test, the first read makes sure it is
+        oConnector.getUser(VALID_USER_ID, accessToken);
+        Map<String, Long> before = cacheCounters();
+
+        for (int i = 0; i < 10; i++) {
+            oConnector.getUser(VALID_USER_ID, accessToken);
+        }
+
+        Map<String, Long> after = cacheCounters();
+        // one validation if the cached one reached its TTL meanwhile; reading the counters may add a hit
+        assertTrue(after.get("misses") - before.get("misses") <= 1);
+        assertTrue(after.get("hits") - before.get("hits") >= 9);
+    }
+
+    @Test(expected = UnauthorizedException.class)
+    public void cached_access_token_is_expired() throws Exception {
+        givenAnAccessTokenForOneSecond();
+        oConnector.getUser(VALID_USER_ID, accessToken);
+        Thread.sleep(1000);
+
+        oConnector.getUser(VALID_USER_ID, accessToken);
+    }
+
+    /**
+     * Reads the counters through the resource server, which usually runs in the JVM of the jetty-maven-plugin.
+     */
+    private Map<String, Long> cacheCounters() throws IOException {
+        HttpGet httpGet = new HttpGet(RESOURCE_ENDPOINT_ADDRESS + "/tokenValidationCache");
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        try {
+            HttpResponse response = HTTP_CLIENT.execute(httpGet);
+            assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+            String body = EntityUtils.toString(response.getEntity());
+            return MAPPER.readValue(body, new TypeReference<Map<String, Long>>() {
+            });
+        } finally {
+            httpGet.releaseConnection();
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package org.osiam.client;
 
-import com.github.springtestdbunit.DbUnitTestExecutionListener;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
 import org.osiam.client.exception.ConflictException;
 import org.osiam.client.oauth.GrantType;
 import org.osiam.client.oauth.Scope;
@@ -28,7 +28,7 @@ import static org.junit.Assert.*;
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration("/context.xml")
 @TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
-        DbUnitTestExecutionListener.class})
+        DatabaseSnapshotTestExecutionListener.class})
 @DatabaseSetup("/database_seed.xml")
 public class UpdateUserIT extends AbstractIntegrationTestBase {
 
@@ -659,7 +659,7 @@ public class UpdateUserIT extends AbstractIntegrationTestBase {
                 setUserName("UserName").
                 setPassword("Password").
                 setScope(Scope.ALL);
-        oConnector = oConBuilder.build();
+        oConnector = instrument(oConBuilder.build());
         oConnector.retrieveAccessToken();
     }
 
@@ -673,7 +673,7 @@ public class UpdateUserIT extends AbstractIntegrationTestBase {
                 setUserName("marissa").
                 setPassword("koala").
                 setScope(Scope.ALL);
-        oConnector = oConBuilder.build();
+        oConnector = instrument(oConBuilder.build());
         oConnector.retrieveAccessToken();
     }
 
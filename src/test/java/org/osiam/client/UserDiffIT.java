@@ -0,0 +1,156 @@
+package org.osiam.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osiam.client.database.DatabaseSnapshotTestExecutionListener;
+import org.osiam.client.diff.UserDiff;
+import org.osiam.resources.scim.MultiValuedAttribute;
+import org.osiam.resources.scim.User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("/context.xml")
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+        DatabaseSnapshotTestExecutionListener.class})
+@DatabaseSetup("/database_seed.xml")
+public class UserDiffIT extends AbstractIntegrationTestBase {
+
+    private static final MultiValuedAttribute WORK_EMAIL = new MultiValuedAttribute.Builder()
+            .setValue("diff@work-example.com").setType("work").setPrimary(true).build();
+    private static final MultiValuedAttribute HOME_EMAIL = new MultiValuedAttribute.Builder()
+            .setValue("diff@home-example.com").setType("home").build();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private User original;
+
+    @Before
+    public void setUp() {
+        User user = new User.Builder("userDiff")
+                .setNickName("nick")
+                .setTitle("Dr.")
+                .setEmails(Arrays.asList(WORK_EMAIL, HOME_EMAIL))
+                .build();
+        String id = oConnector.createUser(user, accessToken).getId();
+        original = oConnector.getUser(id, accessToken);
+    }
+
+    @After
+    public void tearDown() {
+        oConnector.deleteUser(original.getId(), accessToken);
+    }
+
+    @Test
+    public void an_unchanged_user_needs_no_update() {
+        UserDiff diff = UserDiff.between(original, oConnector.getUser(original.getId(), accessToken));
+
+        assertTrue(diff.getChanges().toString(), diff.isEmpty());
+        assertNull(diff.apply(oConnector, original.getId(), accessToken));
+    }
+
+    @Test
+    public void a_changed_field_is_the_only_change() {
+        User desired = changed("nickName", "new nick");
+
+        UserDiff diff = UserDiff.between(original, desired);
+        diff.apply(oConnector, original.getId(), accessToken);
+
+        assertEquals(Arrays.asList("update nickName"), diff.getChanges());
+        User updated = oConnector.getUser(original.getId(), accessToken);
+        assertEquals("new nick", updated.getNickName());
+        assertEquals("Dr.", updated.getTitle());
+        assertEquals(2, updated.getEmails().size());
+    }
+
+    @Test
+    public void a_removed_field_is_deleted() {
+        User desired = changed("title", null);
+
+        UserDiff diff = UserDiff.between(original, desired);
+        diff.apply(oConnector, original.getId(), accessToken);
+
+        assertEquals(Arrays.asList("delete title"), diff.getChanges());
+        assertNull(oConnector.getUser(original.getId(), accessToken).getTitle());
+    }
+
+    @Test
+    public void a_removed_email_is_deleted_alone() {
+        User desired = changed("emails", emailsWithout(HOME_EMAIL.getValue()));
+
+        UserDiff diff = UserDiff.between(original, desired);
+        diff.apply(oConnector, original.getId(), accessToken);
+
+        assertEquals(Arrays.asList("delete emails[diff@home-example.com]"), diff.getChanges());
+        List<MultiValuedAttribute> emails = oConnector.getUser(original.getId(), accessToken).getEmails();
+        assertEquals(1, emails.size());
+        assertEquals(WORK_EMAIL.getValue(), emails.get(0).getValue());
+    }
+
+    @Test
+    public void a_new_email_is_added_alone() {
+        List<MultiValuedAttribute> emails = new ArrayList<>(original.getEmails());
+        emails.add(new MultiValuedAttribute.Builder().setValue("diff@other-example.com").setType("other").build());
+        User desired = changed("emails", emails);
+
+        assertEquals(Arrays.asList("add emails[diff@other-example.com]"),
+                UserDiff.between(original, desired).getChanges());
+    }
+
+    @Test
+    public void a_changed_email_is_added_again() {
+        List<MultiValuedAttribute> emails = emailsWithout(HOME_EMAIL.getValue());
+        emails.add(new MultiValuedAttribute.Builder().setValue(HOME_EMAIL.getValue()).setType("other").build());
+        User desired = changed("emails", emails);
+
+        assertEquals(Arrays.asList("add emails[diff@home-example.com]"),
+                UserDiff.between(original, desired).getChanges());
+    }
+
+    @Test
+    public void removing_all_emails_deletes_the_attribute() {
+        User desired = changed("emails", new ArrayList<MultiValuedAttribute>());
+
+        assertEquals(Arrays.asList("delete emails"), UserDiff.between(original, desired).getChanges());
+    }
+
+    /**
+     * @return a copy of the original user with one attribute replaced, User has no copy builder
+     */
+    private User changed(String attribute, Object value) {
+        ObjectNode user = MAPPER.valueToTree(original);
+        user.set(attribute, MAPPER.valueToTree(value));
+        try {
+            return MAPPER.treeToValue(user, User.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<MultiValuedAttribute> emailsWithout(Object value) {
+        List<MultiValuedAttribute> emails = new ArrayList<>();
+        for (MultiValuedAttribute email : original.getEmails()) {
+            if (!value.equals(email.getValue())) {
+                emails.add(email);
+            }
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,247 @@
+package org.osiam.client.async;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Runs the calls of an {@link OsiamOperations} on an executor and returns their results as {@link Future}s, so that
+ * many SCIM calls can be overlapped. The connector is thread-safe; the exceptions it throws, e.g.
+ * NoResultException, are rethrown by {@link Future#get()} wrapped in an ExecutionException.
+ * <p/>
+ * The number of calls in flight is bounded by the executor. Without one a fixed pool of daemon threads is used, see
+ * {@link Builder#setThreads(int)}, which {@link #shutdown()} stops; a given executor is left to its owner.
+ * <p/>
+ * The connector does blocking I/O and cannot be changed in this project, so every call in flight still occupies one
+ * executor thread while it waits for the server. The wrapper frees the caller, not the thread: overlapping more calls
+ * than the pool has threads queues them.
+ */
+public class AsyncOsiamConnector {
+
+    private final OsiamOperations connector;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private AsyncOsiamConnector(Builder builder) {
+        connector = builder.connector;
+        ownsExecutor = builder.executor == null;
+        executor = ownsExecutor ? Executors.newFixedThreadPool(builder.threads, new DaemonThreadFactory())
+                : builder.executor;
+    }
+
+    public Future<User> getUser(final String id, final AccessToken accessToken) {
+        return executor.submit(new Callable<User>() {
+            @Override
+            public User call() {
+                return connector.getUser(id, accessToken);
+            }
+        });
+    }
+
+    public Future<Group> getGroup(final String id, final AccessToken accessToken) {
+        return executor.submit(new Callable<Group>() {
+            @Override
+            public Group call() {
+                return connector.getGroup(id, accessToken);
+            }
+        });
+    }
+
+    public Future<User> getMe(final AccessToken accessToken) {
+        return executor.submit(new Callable<User>() {
+            @Override
+            public User call() {
+                return connector.getMe(accessToken);
+            }
+        });
+    }
+
+    public Future<List<User>> getAllUsers(final AccessToken accessToken) {
+        return executor.submit(new Callable<List<User>>() {
+            @Override
+            public List<User> call() {
+                return connector.getAllUsers(accessToken);
+            }
+        });
+    }
+
+    public Future<List<Group>> getAllGroups(final AccessToken accessToken) {
+        return executor.submit(new Callable<List<Group>>() {
+            @Override
+            public List<Group> call() {
+                return connector.getAllGroups(accessToken);
+            }
+        });
+    }
+
+    public Future<QueryResult<User>> searchUsers(final Query query, final AccessToken accessToken) {
+        return executor.submit(new Callable<QueryResult<User>>() {
+            @Override
+            public QueryResult<User> call() {
+                return connector.searchUsers(query, accessToken);
+            }
+        });
+    }
+
+    public Future<QueryResult<User>> searchUsers(final String queryString, final AccessToken accessToken) {
+        return executor.submit(new Callable<QueryResult<User>>() {
+            @Override
+            public QueryResult<User> call() {
+                return connector.searchUsers(queryString, accessToken);
+            }
+        });
+    }
+
+    public Future<QueryResult<Group>> searchGroups(final Query query, final AccessToken accessToken) {
+        return executor.submit(new Callable<QueryResult<Group>>() {
+            @Override
+            public QueryResult<Group> call() {
+                return connector.searchGroups(query, accessToken);
+            }
+        });
+    }
+
+    public Future<QueryResult<Group>> searchGroups(final String queryString, final AccessToken accessToken) {
+        return executor.submit(new Callable<QueryResult<Group>>() {
+            @Override
+            public QueryResult<Group> call() {
+                return connector.searchGroups(queryString, accessToken);
+            }
+        });
+    }
+
+    public Future<User> createUser(final User user, final AccessToken accessToken) {
+        return executor.submit(new Callable<User>() {
+            @Override
+            public User call() {
+                return connector.createUser(user, accessToken);
+            }
+        });
+    }
+
+    public Future<Group> createGroup(final Group group, final AccessToken accessToken) {
+        return executor.submit(new Callable<Group>() {
+            @Override
+            public Group call() {
+                return connector.createGroup(group, accessToken);
+            }
+        });
+    }
+
+    public Future<User> updateUser(final String id, final UpdateUser updateUser, final AccessToken accessToken) {
+        return executor.submit(new Callable<User>() {
+            @Override
+            public User call() {
+                return connector.updateUser(id, updateUser, accessToken);
+            }
+        });
+    }
+
+    public Future<Group> updateGroup(final String id, final UpdateGroup updateGroup, final AccessToken accessToken) {
+        return executor.submit(new Callable<Group>() {
+            @Override
+            public Group call() {
+                return connector.updateGroup(id, updateGroup, accessToken);
+            }
+        });
+    }
+
+    public Future<Void> deleteUser(final String id, final AccessToken accessToken) {
+        return executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                connector.deleteUser(id, accessToken);
+                return null;
+            }
+        });
+    }
+
+    public Future<Void> deleteGroup(final String id, final AccessToken accessToken) {
+        return executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                connector.deleteGroup(id, accessToken);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @return the connector that executes the calls
+     */
+    public OsiamOperations getConnector() {
+        return connector;
+    }
+
+    /**
+     * Stops the threads of the default executor once the submitted calls are done.
+     */
+    public void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "async-osiam-connector-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+
+        private final OsiamOperations connector;
+        private ExecutorService executor;
+        private int threads = 32;
+
+        public Builder(OsiamOperations connector) {
+            if (connector == null) {
+                throw new IllegalArgumentException("The connector must not be null");
+            }
+            this.connector = connector;
+        }
+
+        /**
+         * @param executor the executor to run the calls on, shared with other code and not shut down by
+         *                 {@link AsyncOsiamConnector#shutdown()}
+         */
+        public Builder setExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param threads the number of calls in flight if no executor is set, default 32
+         */
+        public Builder setThreads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("At least one thread is needed");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        public AsyncOsiamConnector build() {
+            return new AsyncOsiamConnector(this);
+        }
+    }
+}
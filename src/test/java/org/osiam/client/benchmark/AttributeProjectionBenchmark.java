@@ -0,0 +1,90 @@
+package org.osiam.client.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.projection.AttributeProjection;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.User;
+
+/**
+ * Latency of a <code>/Users</code> page of 100 with all attributes against one restricted to id, userName and active.
+ * The payload sizes are printed in the setup. Run with a generated dataset, so that there are full pages:
+ * <pre>
+ * mvn verify -Pbenchmarks -Dbenchmark.includes=AttributeProjectionBenchmark -Ddataset.users=10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AttributeProjectionBenchmark {
+
+    private static final String PAGE = "count=100&startIndex=1";
+
+    @Param({"all", "id,userName,active"})
+    public String attributes;
+
+    private OsiamConnector oConnector;
+    private AccessToken accessToken;
+    private DefaultHttpClient httpClient;
+    private String queryString;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseSeeder.seed();
+
+        oConnector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(TestEnvironment.AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client").
+                setClientSecret("secret").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(org.osiam.client.oauth.Scope.ALL).build();
+        accessToken = oConnector.retrieveAccessToken();
+        httpClient = SharedHttpConnectionPool.getDefault().newHttpClient();
+
+        queryString = "all".equals(attributes) ? PAGE
+                : AttributeProjection.of(attributes.split(",")).appendTo(PAGE);
+        System.out.printf("%nattributes %s: %d bytes per page%n", attributes, rawPage().length);
+    }
+
+    @Benchmark
+    public byte[] rawPage() throws IOException {
+        HttpGet httpGet = new HttpGet(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS + "/Users?" + queryString);
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        HttpResponse response = httpClient.execute(httpGet);
+        return EntityUtils.toByteArray(response.getEntity());
+    }
+
+    @Benchmark
+    public QueryResult<User> searchUsers() {
+        return oConnector.searchUsers(queryString, accessToken);
+    }
+}
@@ -0,0 +1,90 @@
+package org.osiam.client.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+
+/**
+ * Latency of reading <code>/Users</code> pages of 100 and 1000 users with and without gzip. The bytes on the wire of
+ * both are printed in the setup; <code>-prof gc</code> of the benchmarks profile shows the allocation cost of the
+ * decompression. Run with a generated dataset, so that the pages are full:
+ * <pre>
+ * mvn verify -Pbenchmarks -Dbenchmark.includes=CompressionBenchmark -Ddataset.users=10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private AccessToken accessToken;
+    private HttpClient httpClient;
+    private String uri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseSeeder.seed();
+
+        accessToken = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(TestEnvironment.AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client").
+                setClientSecret("secret").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(org.osiam.client.oauth.Scope.ALL).build().retrieveAccessToken();
+        uri = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS + "/Users?startIndex=1&count=" + pageSize;
+        httpClient = "gzip".equals(encoding) ? SharedHttpConnectionPool.getDefault().newCompressingHttpClient()
+                : SharedHttpConnectionPool.getDefault().newHttpClient();
+
+        HttpGet httpGet = get();
+        httpGet.addHeader("Accept-Encoding", encoding);
+        HttpResponse response = SharedHttpConnectionPool.getDefault().newHttpClient().execute(httpGet);
+        System.out.printf("%npage of %d, %s: %d bytes on the wire%n", pageSize, encoding,
+                EntityUtils.toByteArray(response.getEntity()).length);
+    }
+
+    @Benchmark
+    public String readPage() throws IOException {
+        HttpResponse response = httpClient.execute(get());
+        return EntityUtils.toString(response.getEntity(), "UTF-8");
+    }
+
+    private HttpGet get() {
+        HttpGet httpGet = new HttpGet(uri);
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        return httpGet;
+    }
+}
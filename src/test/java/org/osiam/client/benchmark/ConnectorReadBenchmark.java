@@ -0,0 +1,92 @@
+package org.osiam.client.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.query.metamodel.User_;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * JMH benchmarks of the read paths of the {@link OsiamConnector} against the Jetty instance started in the
+ * pre-integration-test phase. Run with <code>mvn verify -Pbenchmarks</code>, the results are written to
+ * <code>target/jmh-result.json</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConnectorReadBenchmark {
+
+    private static final String AUTH_ENDPOINT_ADDRESS = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
+    private static final String RESOURCE_ENDPOINT_ADDRESS = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS;
+    private static final String CLIENT_ID = "example-client";
+    private static final String CLIENT_SECRET = "secret";
+    private static final String VALID_USER_ID = "834b410a-943b-4c80-817a-4465aed037bc";
+    private static final String VALID_GROUP_ID = "69e1a5dc-89be-4343-976c-b5541af249f4";
+
+    private OsiamConnector oConnector;
+    private AccessToken accessToken;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseSeeder.seed();
+        retrieveAccessToken();
+    }
+
+    private void retrieveAccessToken() {
+        oConnector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(RESOURCE_ENDPOINT_ADDRESS).
+                setClientId(CLIENT_ID).
+                setClientSecret(CLIENT_SECRET).
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(org.osiam.client.oauth.Scope.ALL).build();
+        accessToken = oConnector.retrieveAccessToken();
+
+        Query.Filter filter = new Query.Filter(User.class, User_.userName.equalTo("bjensen"));
+        query = new Query.Builder(User.class).setFilter(filter).build();
+    }
+
+    @Benchmark
+    public User getUser() {
+        return oConnector.getUser(VALID_USER_ID, accessToken);
+    }
+
+    @Benchmark
+    public Group getGroup() {
+        return oConnector.getGroup(VALID_GROUP_ID, accessToken);
+    }
+
+    @Benchmark
+    public QueryResult<User> searchUsers() {
+        return oConnector.searchUsers(query, accessToken);
+    }
+
+    @Benchmark
+    public User getMe() {
+        return oConnector.getMe(accessToken);
+    }
+}
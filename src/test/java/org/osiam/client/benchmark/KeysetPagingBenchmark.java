@@ -0,0 +1,93 @@
+package org.osiam.client.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.operations.ConnectorOperations;
+import org.osiam.client.paging.KeysetPaging;
+import org.osiam.resources.scim.User;
+
+/**
+ * Latency of one page of 100 users sorted by userName, at page 1 and at page 10000, with <code>startIndex</code>
+ * offset paging and with {@link KeysetPaging}. The keyset page should cost the same at both depths. Run with a million
+ * generated users:
+ * <pre>
+ * mvn verify -Pbenchmarks -Dbenchmark.includes=KeysetPagingBenchmark -Ddataset.users=1000000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPagingBenchmark {
+
+    private static final int COUNT = 100;
+
+    @Param({"1", "10000"})
+    public int page;
+
+    private OsiamConnector oConnector;
+    private AccessToken accessToken;
+    private KeysetPaging<User> keysetPaging;
+    private String offsetQuery;
+    private String continuationToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseSeeder.seed();
+
+        oConnector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(TestEnvironment.AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client").
+                setClientSecret("secret").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(org.osiam.client.oauth.Scope.ALL).build();
+        accessToken = oConnector.retrieveAccessToken();
+        keysetPaging = KeysetPaging.users(ConnectorOperations.of(oConnector), accessToken).setCount(COUNT).build();
+
+        offsetQuery = "sortBy=userName&sortOrder=ascending&count=" + COUNT + "&startIndex=" + ((page - 1) * COUNT + 1);
+        if (page > 1) {
+            // the last user of the preceding page, found once with the slow offset search
+            String previousPage = "sortBy=userName&sortOrder=ascending&count=1&startIndex=" + (page - 1) * COUNT;
+            List<User> previous = oConnector.searchUsers(previousPage, accessToken).getResources();
+            if (previous.isEmpty()) {
+                throw new IllegalStateException("There is no page " + page + ", set dataset.users to at least "
+                        + page * COUNT);
+            }
+            continuationToken = keysetPaging.continueAfter(previous.get(0));
+        }
+    }
+
+    @Benchmark
+    public List<User> offset() {
+        return oConnector.searchUsers(offsetQuery, accessToken).getResources();
+    }
+
+    @Benchmark
+    public List<User> keyset() {
+        return (continuationToken == null ? keysetPaging.first() : keysetPaging.next(continuationToken))
+                .getResources();
+    }
+}
@@ -0,0 +1,90 @@
+package org.osiam.client.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.streaming.ResourceHandler;
+import org.osiam.client.streaming.StreamingSearch;
+import org.osiam.resources.scim.User;
+
+/**
+ * Reads a page of 1000 users with the connector and with the {@link StreamingSearch}. A benchmark operation is one
+ * user, so the <code>gc.alloc.rate.norm</code> of <code>-prof gc</code> is the allocation per user. The page must be
+ * full, run with a generated dataset:
+ * <pre>
+ * mvn verify -Pbenchmarks -Dbenchmark.includes=StreamingSearchBenchmark -Ddataset.users=10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@OperationsPerInvocation(StreamingSearchBenchmark.PAGE_SIZE)
+public class StreamingSearchBenchmark {
+
+    static final int PAGE_SIZE = 1000;
+
+    private static final String PAGE = "count=" + PAGE_SIZE + "&startIndex=1";
+
+    private OsiamConnector oConnector;
+    private AccessToken accessToken;
+    private StreamingSearch streamingSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseSeeder.seed();
+
+        oConnector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(TestEnvironment.AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client").
+                setClientSecret("secret").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(org.osiam.client.oauth.Scope.ALL).build();
+        accessToken = oConnector.retrieveAccessToken();
+        streamingSearch = new StreamingSearch.Builder(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).build();
+
+        int users = oConnector.searchUsers(PAGE, accessToken).getResources().size();
+        if (users < PAGE_SIZE) {
+            throw new IllegalStateException("The page has only " + users + " users, set dataset.users to at least "
+                    + PAGE_SIZE);
+        }
+    }
+
+    @Benchmark
+    public QueryResult<User> connector() {
+        return oConnector.searchUsers(PAGE, accessToken);
+    }
+
+    @Benchmark
+    public long streaming(final Blackhole blackhole) {
+        return streamingSearch.searchUsers(PAGE, accessToken, new ResourceHandler<User>() {
+            @Override
+            public void handle(User user) {
+                blackhole.consume(user);
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package org.osiam.client.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.query.SortOrder;
+import org.osiam.client.query.metamodel.User_;
+import org.osiam.resources.scim.User;
+
+/**
+ * Throughput of the <code>/Users</code> endpoint under concurrency, which is bound by how fast the resource server
+ * gets its JDBC connections. Compare a run against the pooled data source with one against the server started with
+ * <code>-Dspring.profiles.active=unpooled</code>:
+ * <pre>
+ * mvn verify -Pbenchmarks -Dbenchmark.includes=UsersEndpointBenchmark
+ * mvn verify -Pbenchmarks -Dbenchmark.includes=UsersEndpointBenchmark -Dspring.profiles.active=unpooled
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Threads(16)
+@Fork(1)
+public class UsersEndpointBenchmark {
+
+    private static final String VALID_USER_ID = "834b410a-943b-4c80-817a-4465aed037bc";
+
+    private OsiamConnector oConnector;
+    private AccessToken accessToken;
+    private Query sortedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DatabaseSeeder.seed();
+
+        oConnector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(TestEnvironment.AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client").
+                setClientSecret("secret").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(org.osiam.client.oauth.Scope.ALL).build();
+        accessToken = oConnector.retrieveAccessToken();
+
+        sortedPage = new Query.Builder(User.class).setCountPerPage(10)
+                .setSortBy(User_.userName).setSortOrder(SortOrder.ASCENDING).build();
+    }
+
+    @Benchmark
+    public User getUser() {
+        return oConnector.getUser(VALID_USER_ID, accessToken);
+    }
+
+    @Benchmark
+    public QueryResult<User> searchUsers() {
+        return oConnector.searchUsers(sortedPage, accessToken);
+    }
+
+    @Benchmark
+    public void createAndDeleteUser() {
+        User createdUser = oConnector.createUser(new User.Builder("bench-" + UUID.randomUUID()).build(), accessToken);
+        oConnector.deleteUser(createdUser.getId(), accessToken);
+    }
+}
@@ -0,0 +1,143 @@
+package org.osiam.client.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+
+/**
+ * Executes {@link BulkRequest}s with the per resource calls of an {@link OsiamOperations}, with a bounded number of
+ * operations in flight. The resource server this connector talks to has no SCIM <code>/Bulk</code> endpoint, so a
+ * bulk request still costs one round trip per operation, but the round trips overlap instead of adding up.
+ * <p/>
+ * Operations are independent of each other and may run in any order. Once the failOnErrors threshold of the request
+ * is reached, no further operations are started; those already in flight complete.
+ */
+public class BulkExecutor {
+
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bulk-operation");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final OsiamOperations connector;
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    private BulkExecutor(Builder builder) {
+        connector = builder.connector;
+        concurrency = builder.concurrency;
+        executor = builder.executor == null ? DEFAULT_EXECUTOR : builder.executor;
+    }
+
+    public BulkResponse execute(BulkRequest request, final AccessToken accessToken) {
+        List<BulkOperation> operations = request.getOperations();
+        List<BulkOperationResult> results = new ArrayList<>();
+        for (BulkOperation operation : operations) {
+            results.add(BulkOperationResult.notExecuted(operation));
+        }
+
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        final BulkOperationResult[] completed = new BulkOperationResult[operations.size()];
+        int next = 0;
+        int inFlight = 0;
+        int errors = 0;
+        try {
+            while (next < operations.size() && inFlight < concurrency) {
+                completionService.submit(new OperationCall(operations.get(next), next++, accessToken, completed));
+                inFlight++;
+            }
+            while (inFlight > 0) {
+                int index = completionService.take().get();
+                inFlight--;
+                results.set(index, completed[index]);
+                if (completed[index].getError() != null) {
+                    errors++;
+                }
+                boolean failed = request.getFailOnErrors() > 0 && errors >= request.getFailOnErrors();
+                if (!failed && next < operations.size()) {
+                    completionService.submit(new OperationCall(operations.get(next), next++, accessToken, completed));
+                    inFlight++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing a bulk request", e);
+        } catch (ExecutionException e) {
+            // OperationCall catches every RuntimeException
+            throw new IllegalStateException(e.getCause());
+        }
+        return new BulkResponse(results);
+    }
+
+    private class OperationCall implements Callable<Integer> {
+
+        private final BulkOperation operation;
+        private final int index;
+        private final AccessToken accessToken;
+        private final BulkOperationResult[] completed;
+
+        OperationCall(BulkOperation operation, int index, AccessToken accessToken, BulkOperationResult[] completed) {
+            this.operation = operation;
+            this.index = index;
+            this.accessToken = accessToken;
+            this.completed = completed;
+        }
+
+        @Override
+        public Integer call() {
+            try {
+                completed[index] = BulkOperationResult.success(operation, operation.execute(connector, accessToken));
+            } catch (RuntimeException e) {
+                completed[index] = BulkOperationResult.failure(operation, e);
+            }
+            return index;
+        }
+    }
+
+    public static class Builder {
+
+        private final OsiamOperations connector;
+        private int concurrency = 8;
+        private ExecutorService executor;
+
+        public Builder(OsiamOperations connector) {
+            this.connector = connector;
+        }
+
+        /**
+         * @param concurrency the maximum number of operations in flight, default 8
+         */
+        public Builder setConcurrency(int concurrency) {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("At least one operation must be allowed in flight");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param executor runs the operations; default a cached pool of daemon threads
+         */
+        public Builder setExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public BulkExecutor build() {
+            return new BulkExecutor(this);
+        }
+    }
+}
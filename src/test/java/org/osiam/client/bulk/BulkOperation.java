@@ -0,0 +1,106 @@
+package org.osiam.client.bulk;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * One operation of a {@link BulkRequest}, named after the SCIM bulk operation it corresponds to.
+ */
+public abstract class BulkOperation {
+
+    /**
+     * The HTTP methods of SCIM bulk operations.
+     */
+    public enum Method {
+        POST, PATCH, DELETE
+    }
+
+    private final Method method;
+    private final String path;
+
+    BulkOperation(Method method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the SCIM path of the operation, e.g. <code>/Users</code> or <code>/Groups/{id}</code>
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the resource the server returned, or null for deletions
+     */
+    abstract Object execute(OsiamOperations connector, AccessToken accessToken);
+
+    static BulkOperation createUser(final User user) {
+        return new BulkOperation(Method.POST, "/Users") {
+            @Override
+            Object execute(OsiamOperations connector, AccessToken accessToken) {
+                return connector.createUser(user, accessToken);
+            }
+        };
+    }
+
+    static BulkOperation createGroup(final Group group) {
+        return new BulkOperation(Method.POST, "/Groups") {
+            @Override
+            Object execute(OsiamOperations connector, AccessToken accessToken) {
+                return connector.createGroup(group, accessToken);
+            }
+        };
+    }
+
+    static BulkOperation updateUser(final String id, final UpdateUser updateUser) {
+        return new BulkOperation(Method.PATCH, "/Users/" + id) {
+            @Override
+            Object execute(OsiamOperations connector, AccessToken accessToken) {
+                return connector.updateUser(id, updateUser, accessToken);
+            }
+        };
+    }
+
+    static BulkOperation updateGroup(final String id, final UpdateGroup updateGroup) {
+        return new BulkOperation(Method.PATCH, "/Groups/" + id) {
+            @Override
+            Object execute(OsiamOperations connector, AccessToken accessToken) {
+                return connector.updateGroup(id, updateGroup, accessToken);
+            }
+        };
+    }
+
+    static BulkOperation deleteUser(final String id) {
+        return new BulkOperation(Method.DELETE, "/Users/" + id) {
+            @Override
+            Object execute(OsiamOperations connector, AccessToken accessToken) {
+                connector.deleteUser(id, accessToken);
+                return null;
+            }
+        };
+    }
+
+    static BulkOperation deleteGroup(final String id) {
+        return new BulkOperation(Method.DELETE, "/Groups/" + id) {
+            @Override
+            Object execute(OsiamOperations connector, AccessToken accessToken) {
+                connector.deleteGroup(id, accessToken);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
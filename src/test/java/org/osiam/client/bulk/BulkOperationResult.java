@@ -0,0 +1,76 @@
+package org.osiam.client.bulk;
+
+import org.osiam.client.http.ErrorStatus;
+
+/**
+ * The outcome of one {@link BulkOperation}, with the HTTP status the operation would have in a SCIM bulk response.
+ * The status of a failed operation is recovered by {@link ErrorStatus}, so it is 0 if no response was received or
+ * its status is unknown. Operations that were not started because failOnErrors was reached have the status 0 too,
+ * {@link #isExecuted()} tells them apart.
+ */
+public final class BulkOperationResult {
+
+    static final int NOT_EXECUTED = 0;
+
+    private final BulkOperation operation;
+    private final int status;
+    private final Object resource;
+    private final RuntimeException error;
+
+    private BulkOperationResult(BulkOperation operation, int status, Object resource, RuntimeException error) {
+        this.operation = operation;
+        this.status = status;
+        this.resource = resource;
+        this.error = error;
+    }
+
+    static BulkOperationResult success(BulkOperation operation, Object resource) {
+        int status;
+        switch (operation.getMethod()) {
+            case POST:
+                status = 201;
+                break;
+            case DELETE:
+                status = 204;
+                break;
+            default:
+                status = 200;
+        }
+        return new BulkOperationResult(operation, status, resource, null);
+    }
+
+    static BulkOperationResult failure(BulkOperation operation, RuntimeException error) {
+        return new BulkOperationResult(operation, ErrorStatus.of(error), null, error);
+    }
+
+    static BulkOperationResult notExecuted(BulkOperation operation) {
+        return new BulkOperationResult(operation, NOT_EXECUTED, null, null);
+    }
+
+    public BulkOperation getOperation() {
+        return operation;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isExecuted() {
+        return status != NOT_EXECUTED || error != null;
+    }
+
+    public boolean isSuccessful() {
+        return isExecuted() && error == null;
+    }
+
+    /**
+     * @return the created or updated resource, null for deletions and failed operations
+     */
+    public Object getResource() {
+        return resource;
+    }
+
+    public RuntimeException getError() {
+        return error;
+    }
+}
@@ -0,0 +1,87 @@
+package org.osiam.client.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * A batch of create, update and delete operations on users and groups, see {@link BulkExecutor}.
+ */
+public final class BulkRequest {
+
+    private final List<BulkOperation> operations;
+    private final int failOnErrors;
+
+    private BulkRequest(Builder builder) {
+        operations = Collections.unmodifiableList(new ArrayList<>(builder.operations));
+        failOnErrors = builder.failOnErrors;
+    }
+
+    public List<BulkOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return the number of errors after which the remaining operations are not executed anymore, 0 to execute all
+     */
+    public int getFailOnErrors() {
+        return failOnErrors;
+    }
+
+    public static class Builder {
+
+        private final List<BulkOperation> operations = new ArrayList<>();
+        private int failOnErrors;
+
+        public Builder createUser(User user) {
+            operations.add(BulkOperation.createUser(user));
+            return this;
+        }
+
+        public Builder createGroup(Group group) {
+            operations.add(BulkOperation.createGroup(group));
+            return this;
+        }
+
+        public Builder updateUser(String id, UpdateUser updateUser) {
+            operations.add(BulkOperation.updateUser(id, updateUser));
+            return this;
+        }
+
+        public Builder updateGroup(String id, UpdateGroup updateGroup) {
+            operations.add(BulkOperation.updateGroup(id, updateGroup));
+            return this;
+        }
+
+        public Builder deleteUser(String id) {
+            operations.add(BulkOperation.deleteUser(id));
+            return this;
+        }
+
+        public Builder deleteGroup(String id) {
+            operations.add(BulkOperation.deleteGroup(id));
+            return this;
+        }
+
+        /**
+         * @param failOnErrors like SCIM's failOnErrors: the number of errors after which no further operations are
+         *                     started; default 0, i.e. all operations are executed
+         */
+        public Builder setFailOnErrors(int failOnErrors) {
+            if (failOnErrors < 0) {
+                throw new IllegalArgumentException("failOnErrors must not be negative");
+            }
+            this.failOnErrors = failOnErrors;
+            return this;
+        }
+
+        public BulkRequest build() {
+            return new BulkRequest(this);
+        }
+    }
+}
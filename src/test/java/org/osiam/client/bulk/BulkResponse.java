@@ -0,0 +1,40 @@
+package org.osiam.client.bulk;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a {@link BulkRequest}, in the order of its operations.
+ */
+public final class BulkResponse {
+
+    private final List<BulkOperationResult> results;
+
+    BulkResponse(List<BulkOperationResult> results) {
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    public List<BulkOperationResult> getResults() {
+        return results;
+    }
+
+    public int getErrors() {
+        int errors = 0;
+        for (BulkOperationResult result : results) {
+            if (result.getError() != null) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    public int getExecuted() {
+        int executed = 0;
+        for (BulkOperationResult result : results) {
+            if (result.isExecuted()) {
+                executed++;
+            }
+        }
+        return executed;
+    }
+}
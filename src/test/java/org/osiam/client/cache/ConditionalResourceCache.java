@@ -0,0 +1,234 @@
+package org.osiam.client.cache;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.http.TransferredBytes;
+import org.osiam.client.metrics.ConnectorMetrics;
+import org.osiam.client.metrics.NoOpConnectorMetrics;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A bounded LRU cache of users and groups by id that revalidates every read with a conditional GET. If the resource
+ * is unchanged, the server answers the <code>If-None-Match</code> request with an empty 304 and the cached resource
+ * is returned; otherwise the resource of the 200 response is bound and cached together with the ETag of that very
+ * response, so a new or changed resource costs one round trip like an uncached read.
+ * <p/>
+ * Every read is still authorized by the server with the caller's access token. Error responses are repeated through
+ * the {@link OsiamOperations}, so that the caller gets its usual exceptions. A 200 response without an ETag is returned
+ * but not cached; whether the server sends ETags is decided per response, as it may differ between paths.
+ */
+public class ConditionalResourceCache {
+
+    private final OsiamOperations connector;
+    private final String resourceEndpoint;
+    private final HttpClient httpClient;
+    private final ConnectorMetrics metrics;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Map<String, CachedResource> entries;
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong fetched = new AtomicLong();
+
+    private ConditionalResourceCache(final Builder builder) {
+        connector = builder.connector;
+        resourceEndpoint = builder.resourceEndpoint;
+        httpClient = builder.pool.newHttpClient();
+        metrics = builder.metrics;
+        entries = new LinkedHashMap<String, CachedResource>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+                return size() > builder.maxEntries;
+            }
+        };
+    }
+
+    public User getUser(final String id, final AccessToken accessToken) {
+        return get("/Users/", id, User.class, accessToken, new Fetch<User>() {
+            @Override
+            public User fetch() {
+                return connector.getUser(id, accessToken);
+            }
+        });
+    }
+
+    public Group getGroup(final String id, final AccessToken accessToken) {
+        return get("/Groups/", id, Group.class, accessToken, new Fetch<Group>() {
+            @Override
+            public Group fetch() {
+                return connector.getGroup(id, accessToken);
+            }
+        });
+    }
+
+    /**
+     * Removes a resource, e.g. after the caller changed or deleted it.
+     */
+    public void invalidate(String id) {
+        synchronized (entries) {
+            entries.remove("/Users/" + id);
+            entries.remove("/Groups/" + id);
+        }
+    }
+
+    /**
+     * @return the number of reads answered with 304 Not Modified
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * @return the number of reads that received the full resource
+     */
+    public long getFetched() {
+        return fetched.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String path, String id, Class<T> type, AccessToken accessToken, Fetch<T> fetch) {
+        String key = path + id;
+        CachedResource cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+
+        HttpGet httpGet = new HttpGet(resourceEndpoint + key);
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        if (cached != null) {
+            httpGet.addHeader("If-None-Match", cached.etag);
+        }
+        T resource;
+        String etag;
+        HttpContext context = new BasicHttpContext();
+        try {
+            HttpResponse response = httpClient.execute(httpGet, context);
+            int status = response.getStatusLine().getStatusCode();
+            if (cached != null && status == HttpStatus.SC_NOT_MODIFIED) {
+                EntityUtils.consume(response.getEntity());
+                notModified.incrementAndGet();
+                return (T) cached.resource;
+            }
+            if (status != HttpStatus.SC_OK) {
+                EntityUtils.consume(response.getEntity());
+                resource = null;
+                etag = null;
+            } else {
+                resource = mapper.readValue(response.getEntity().getContent(), type);
+                Header etagHeader = response.getFirstHeader("ETag");
+                etag = etagHeader == null ? null : etagHeader.getValue();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not revalidate " + key, e);
+        } finally {
+            httpGet.releaseConnection();
+            metrics.bytesReceived("conditionalGet" + type.getSimpleName(), TransferredBytes.of(context).getReceived());
+        }
+
+        if (resource == null) {
+            synchronized (entries) {
+                entries.remove(key);
+            }
+            // the connector throws the usual exceptions if the resource is gone or access is denied
+            fetched.incrementAndGet();
+            return fetch.fetch();
+        }
+        fetched.incrementAndGet();
+        synchronized (entries) {
+            if (etag == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, new CachedResource(etag, resource));
+            }
+        }
+        return resource;
+    }
+
+    private interface Fetch<T> {
+        T fetch();
+    }
+
+    private static class CachedResource {
+
+        final String etag;
+        final Object resource;
+
+        CachedResource(String etag, Object resource) {
+            this.etag = etag;
+            this.resource = resource;
+        }
+    }
+
+    public static class Builder {
+
+        private final OsiamOperations connector;
+        private final String resourceEndpoint;
+        private int maxEntries = 10000;
+        private SharedHttpConnectionPool pool = SharedHttpConnectionPool.getDefault();
+        private ConnectorMetrics metrics = NoOpConnectorMetrics.INSTANCE;
+
+        /**
+         * @param resourceEndpoint the resource endpoint the connector was built with
+         */
+        public Builder(OsiamOperations connector, String resourceEndpoint) {
+            this.connector = connector;
+            this.resourceEndpoint = resourceEndpoint;
+        }
+
+        /**
+         * @param maxEntries the number of users and groups kept, the least recently read are evicted; default 10000
+         */
+        public Builder setMaxEntries(int maxEntries) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("The cache must hold at least one entry");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * @param pool the connections for the conditional GETs; default the JVM wide pool
+         */
+        public Builder setConnectionPool(SharedHttpConnectionPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * @param metrics receives the bytes received by the conditional GETs, as operation
+         *                <code>conditionalGetUser</code> or <code>conditionalGetGroup</code>; default
+         *                {@link NoOpConnectorMetrics}
+         */
+        public Builder setMetrics(ConnectorMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public ConditionalResourceCache build() {
+            return new ConditionalResourceCache(this);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.osiam.client.database;
+
+import javax.sql.DataSource;
+
+import org.dbunit.database.DatabaseDataSourceConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.operation.DatabaseOperation;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * Seeds the integration test database outside of the Spring test runner, e.g. for benchmarks and load runs. If the
+ * system property dataset.users is set, a {@link DatasetGenerator} dataset of that size is written on top of the seed.
+ */
+public final class DatabaseSeeder {
+
+    public static final String DEFAULT_SEED = "database_seed.xml";
+
+    private DatabaseSeeder() {
+    }
+
+    public static void seed() throws Exception {
+        seed(DEFAULT_SEED);
+    }
+
+    public static void seed(String seedResource) throws Exception {
+        ClassPathXmlApplicationContext ac = new ClassPathXmlApplicationContext("context.xml");
+        try {
+            DataSource dataSource = (DataSource) ac.getBean("dataSource");
+            IDatabaseConnection connection = new DatabaseDataSourceConnection(dataSource);
+            try {
+                IDataSet initData = new FlatXmlDataSetBuilder().build(ac.getResource(seedResource).getFile());
+                DatabaseOperation.CLEAN_INSERT.execute(connection, initData);
+            } finally {
+                connection.close();
+            }
+            if (Integer.getInteger("dataset.users", 0) > 0) {
+                DatasetGenerator.Builder.fromSystemProperties().build().generate(dataSource);
+            }
+        } finally {
+            ac.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.osiam.client.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.dbunit.database.DatabaseDataSourceConnection;
+import org.dbunit.database.IDatabaseConnection;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.operation.DatabaseOperation;
+import org.springframework.core.io.Resource;
+
+/**
+ * Resets the database to a seeded state. The first reset with a seed loads it with DBUnit's CLEAN_INSERT and copies
+ * every table of the PUBLIC schema into a snapshot schema inside the H2 database. Every following reset with the
+ * same seed only truncates the tables and copies the snapshot back, which takes milliseconds instead of parsing and
+ * inserting the seed again.
+ * <p/>
+ * Snapshots are only taken for H2. For other databases, or if the system property database.snapshot is set to
+ * false, every reset falls back to CLEAN_INSERT.
+ */
+public final class DatabaseSnapshot {
+
+    private static final String SNAPSHOT_SCHEMA_PREFIX = "SNAPSHOT_";
+    private static final Map<String, String> SNAPSHOT_SCHEMAS = new HashMap<>();
+
+    private DatabaseSnapshot() {
+    }
+
+    public static synchronized void reset(DataSource dataSource, Resource seed) throws Exception {
+        if (!isEnabled(dataSource)) {
+            cleanInsert(dataSource, seed);
+            return;
+        }
+        String key = seed.getURL().toString();
+        String schema = SNAPSHOT_SCHEMAS.get(key);
+        if (schema == null) {
+            cleanInsert(dataSource, seed);
+            schema = SNAPSHOT_SCHEMA_PREFIX + SNAPSHOT_SCHEMAS.size();
+            takeSnapshot(dataSource, schema);
+            SNAPSHOT_SCHEMAS.put(key, schema);
+        } else {
+            restoreSnapshot(dataSource, schema);
+        }
+    }
+
+    private static boolean isEnabled(DataSource dataSource) throws SQLException {
+        if (!Boolean.parseBoolean(System.getProperty("database.snapshot", "true"))) {
+            return false;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            return "H2".equals(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    private static void cleanInsert(DataSource dataSource, Resource seed) throws Exception {
+        IDatabaseConnection connection = new DatabaseDataSourceConnection(dataSource);
+        try {
+            IDataSet initData = new FlatXmlDataSetBuilder().build(seed.getInputStream());
+            DatabaseOperation.CLEAN_INSERT.execute(connection, initData);
+        } finally {
+            connection.close();
+        }
+    }
+
+    static void takeSnapshot(DataSource dataSource, String schema) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // a snapshot schema left over by an earlier JVM may belong to a different seed; H2 1.3 has no DROP
+            // SCHEMA ... CASCADE, so its tables are dropped one by one
+            for (String table : tables(connection, schema)) {
+                statement.execute("DROP TABLE " + schema + "." + table);
+            }
+            statement.execute("DROP SCHEMA IF EXISTS " + schema);
+            statement.execute("CREATE SCHEMA " + schema);
+            for (String table : tables(connection, "PUBLIC")) {
+                statement.execute("CREATE TABLE " + schema + "." + table + " AS SELECT * FROM PUBLIC." + table);
+            }
+        }
+    }
+
+    private static void restoreSnapshot(DataSource dataSource, String schema) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String table : tables(connection, "PUBLIC")) {
+                    statement.execute("TRUNCATE TABLE PUBLIC." + table);
+                    statement.execute("INSERT INTO PUBLIC." + table + " SELECT * FROM " + schema + "." + table);
+                }
+            } finally {
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+    }
+
+    static List<String> tables(Connection connection, String schema) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'TABLE'")) {
+            statement.setString(1, schema);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tables.add(resultSet.getString(1));
+                }
+            }
+        }
+        return tables;
+    }
+}
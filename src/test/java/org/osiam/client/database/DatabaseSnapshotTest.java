@@ -0,0 +1,74 @@
+package org.osiam.client.database;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Takes snapshots of a private in-memory H2 database, so that the SQL is checked against the H2 version of the pom.
+ */
+public class DatabaseSnapshotTest {
+
+    private static final String SCHEMA = "SNAPSHOT_TEST";
+
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+    private Connection connection;
+
+    @Before
+    public void createDatabase() throws SQLException {
+        dataSource.setURL("jdbc:h2:mem:" + getClass().getSimpleName() + ";DB_CLOSE_DELAY=-1");
+        connection = dataSource.getConnection();
+        execute("CREATE TABLE PUBLIC.ITEMS (ID INT PRIMARY KEY)");
+        execute("INSERT INTO PUBLIC.ITEMS VALUES (1)");
+    }
+
+    @After
+    public void dropDatabase() throws SQLException {
+        execute("DROP ALL OBJECTS");
+        connection.close();
+    }
+
+    @Test
+    public void snapshot_can_be_taken_twice() throws SQLException {
+        DatabaseSnapshot.takeSnapshot(dataSource, SCHEMA);
+        execute("INSERT INTO PUBLIC.ITEMS VALUES (2)");
+
+        DatabaseSnapshot.takeSnapshot(dataSource, SCHEMA);
+
+        assertEquals(2, count(SCHEMA + ".ITEMS"));
+    }
+
+    @Test
+    public void stale_snapshot_schema_is_replaced() throws SQLException {
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("CREATE TABLE " + SCHEMA + ".OTHER_SEED (ID INT)");
+
+        DatabaseSnapshot.takeSnapshot(dataSource, SCHEMA);
+
+        assertEquals(Arrays.asList("ITEMS"), DatabaseSnapshot.tables(connection, SCHEMA));
+        assertEquals(1, count(SCHEMA + ".ITEMS"));
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
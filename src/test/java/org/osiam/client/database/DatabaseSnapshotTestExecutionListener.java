@@ -0,0 +1,41 @@
+package org.osiam.client.database;
+
+import java.lang.reflect.Method;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+
+/**
+ * Drop-in replacement for spring-test-dbunit's DbUnitTestExecutionListener for the <code>@DatabaseSetup</code>
+ * annotation. Instead of running CLEAN_INSERT before every test method it resets the database through a
+ * {@link DatabaseSnapshot}.
+ */
+public class DatabaseSnapshotTestExecutionListener extends AbstractTestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) throws Exception {
+        DatabaseSetup databaseSetup = findDatabaseSetup(testContext.getTestMethod(), testContext.getTestClass());
+        if (databaseSetup == null) {
+            return;
+        }
+        ApplicationContext applicationContext = testContext.getApplicationContext();
+        DataSource dataSource = applicationContext.getBean("dataSource", DataSource.class);
+        for (String seed : databaseSetup.value()) {
+            DatabaseSnapshot.reset(dataSource, applicationContext.getResource(seed));
+        }
+    }
+
+    private DatabaseSetup findDatabaseSetup(Method testMethod, Class<?> testClass) {
+        DatabaseSetup databaseSetup = AnnotationUtils.findAnnotation(testMethod, DatabaseSetup.class);
+        if (databaseSetup == null) {
+            databaseSetup = AnnotationUtils.findAnnotation(testClass, DatabaseSetup.class);
+        }
+        return databaseSetup;
+    }
+}
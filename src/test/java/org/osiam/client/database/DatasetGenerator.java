@@ -0,0 +1,353 @@
+package org.osiam.client.database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * Streams a large, realistic dataset into the integration test database with JDBC batches. Nothing but the current
+ * batch is held in memory, so millions of users can be written into the H2 TCP database the servers run on.
+ * <p/>
+ * The rows use the same tables as <code>database_seed.xml</code> and are meant to be written on top of it. The
+ * generated internal ids start at {@link Builder#setFirstInternalId(long)} to not collide with the seed or with
+ * resources the tests create. Users get a work email and with a smaller probability a home email and one or two
+ * phone numbers. Group sizes follow a Zipf like distribution, the first group contains up to
+ * {@link Builder#setLargestGroupSize(int)} users. All values are derived from a fixed random seed, so the same
+ * settings always generate the same dataset and ids can be recomputed with {@link #userId(long)} and
+ * {@link #groupId(long)}.
+ */
+public class DatasetGenerator {
+
+    private static final String[] GIVEN_NAMES = {"Adeline", "Barbara", "Beccy", "Carolina", "Daniel", "Emil",
+            "Erick", "Gregg", "Homer", "Kenny", "Lisa", "Marge", "Ned", "Otto", "Patty", "Selma"};
+    private static final String[] FAMILY_NAMES = {"Barker", "Cooper", "Davies", "Jensen", "Miller", "Morris",
+            "Palmer", "Simpson", "Thompson", "Willey", "Flanders", "Bouvier", "Szyslak", "Skinner"};
+    private static final String[] LOCALES = {"de", "en", "fr", "us"};
+    private static final String PASSWORD_HASH = "cbae73fac0893291c4792ef19d158a589402288b35cb18fb8406e951b9d95f6b"
+            + "8b06a3526ffebe96ae0d91c04ae615a7fe2af362763db386ccbf3b55c29ae800";
+    private static final long CREATED = Timestamp.valueOf("2013-08-08 00:00:00.0").getTime();
+
+    private final int users;
+    private final int groups;
+    private final int largestGroupSize;
+    private final int batchSize;
+    private final long firstInternalId;
+    private final long seed;
+
+    private DatasetGenerator(Builder builder) {
+        users = builder.users;
+        groups = builder.groups;
+        largestGroupSize = builder.largestGroupSize;
+        batchSize = builder.batchSize;
+        firstInternalId = builder.firstInternalId;
+        seed = builder.seed;
+    }
+
+    /**
+     * @return the scim id of the n-th generated user
+     */
+    public static String userId(long n) {
+        return UUID.nameUUIDFromBytes(("user-" + n).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @return the scim id of the n-th generated group
+     */
+    public static String groupId(long n) {
+        return UUID.nameUUIDFromBytes(("group-" + n).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @return the user name of the n-th generated user
+     */
+    public static String userName(long n) {
+        return String.format("%s.%s.%08d", GIVEN_NAMES[(int) (n % GIVEN_NAMES.length)].toLowerCase(),
+                FAMILY_NAMES[(int) (n / GIVEN_NAMES.length % FAMILY_NAMES.length)].toLowerCase(), n);
+    }
+
+    /**
+     * @return the number of members of the n-th generated group
+     */
+    public int groupSize(long n) {
+        return (int) Math.min(users, largestGroupSize / (n + 1));
+    }
+
+    public void generate(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                generateUsers(connection);
+                generateGroups(connection);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void generateUsers(Connection connection) throws SQLException {
+        Random random = new Random(seed);
+        try (Batch batch = new Batch(connection, batchSize)) {
+            PreparedStatement meta = batch.prepare(
+                    "INSERT INTO scim_meta (id, created, lastmodified, resourcetype) VALUES (?, ?, ?, 'User')");
+            PreparedStatement id = batch.prepare(
+                    "INSERT INTO scim_id (internal_id, externalid, meta_id, id) VALUES (?, ?, ?, ?)");
+            PreparedStatement name = batch.prepare(
+                    "INSERT INTO scim_name (id, familyname, formatted, givenname) VALUES (?, ?, ?, ?)");
+            PreparedStatement user = batch.prepare("INSERT INTO scim_user (internal_id, name_id, username, "
+                    + "password, displayname, nickname, locale, preferredlanguage, title, usertype, active) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'user', ?)");
+            PreparedStatement email = batch.prepare("INSERT INTO scim_email (multiValueId, value, "
+                    + "postgresql_does_not_like_primary, type, user_internal_id) VALUES (?, ?, ?, ?, ?)");
+            PreparedStatement phoneNumber = batch.prepare("INSERT INTO scim_phonenumber (multiValueId, value, "
+                    + "type, user_internal_id) VALUES (?, ?, ?, ?)");
+
+            for (long n = 0; n < users; n++) {
+                long internalId = userInternalId(n);
+                long metaId = internalId + 1;
+                long nameId = internalId + 2;
+                String givenName = GIVEN_NAMES[(int) (n % GIVEN_NAMES.length)];
+                String familyName = FAMILY_NAMES[(int) (n / GIVEN_NAMES.length % FAMILY_NAMES.length)];
+                String userName = userName(n);
+
+                Timestamp created = new Timestamp(CREATED + n * 1000);
+                meta.setLong(1, metaId);
+                meta.setTimestamp(2, created);
+                meta.setTimestamp(3, new Timestamp(created.getTime() + random.nextInt(1000000) * 1000L));
+                id.setLong(1, internalId);
+                id.setString(2, userName);
+                id.setLong(3, metaId);
+                id.setString(4, userId(n));
+                name.setLong(1, nameId);
+                name.setString(2, familyName);
+                name.setString(3, givenName + " " + familyName);
+                name.setString(4, givenName);
+                String locale = LOCALES[random.nextInt(LOCALES.length)];
+                user.setLong(1, internalId);
+                user.setLong(2, nameId);
+                user.setString(3, userName);
+                user.setString(4, PASSWORD_HASH);
+                user.setString(5, givenName + " " + familyName.charAt(0) + ".");
+                user.setString(6, givenName);
+                user.setString(7, locale);
+                user.setString(8, locale);
+                user.setString(9, random.nextInt(4) == 0 ? "Dr." : null);
+                user.setBoolean(10, random.nextInt(10) != 0);
+                batch.add(meta, id, name, user);
+
+                // 1 to 2 emails, 0 to 2 phone numbers
+                addMultiValue(batch, email, internalId, 3, userName + "@work-example.com", "work", true);
+                if (random.nextInt(10) < 4) {
+                    addMultiValue(batch, email, internalId, 4, userName + "@home-example.com", "home", false);
+                }
+                int phoneNumbers = random.nextInt(10) < 5 ? 0 : random.nextInt(10) < 7 ? 1 : 2;
+                for (int i = 0; i < phoneNumbers; i++) {
+                    phoneNumber.setLong(1, internalId + 5 + i);
+                    phoneNumber.setString(2, String.format("%03d-555-%04d", random.nextInt(1000), n % 10000));
+                    phoneNumber.setString(3, i == 0 ? "work" : "home");
+                    phoneNumber.setLong(4, internalId);
+                    batch.add(phoneNumber);
+                }
+            }
+        }
+    }
+
+    private void addMultiValue(Batch batch, PreparedStatement statement, long userInternalId, int offset,
+            String value, String type, boolean primary) throws SQLException {
+        statement.setLong(1, userInternalId + offset);
+        statement.setString(2, value);
+        statement.setBoolean(3, primary);
+        statement.setString(4, type);
+        statement.setLong(5, userInternalId);
+        batch.add(statement);
+    }
+
+    private void generateGroups(Connection connection) throws SQLException {
+        Random random = new Random(seed + 1);
+        try (Batch batch = new Batch(connection, batchSize)) {
+            PreparedStatement meta = batch.prepare(
+                    "INSERT INTO scim_meta (id, created, lastmodified, resourcetype) VALUES (?, ?, ?, 'Group')");
+            PreparedStatement id = batch.prepare(
+                    "INSERT INTO scim_id (internal_id, externalid, meta_id, id) VALUES (?, ?, ?, ?)");
+            PreparedStatement group = batch.prepare(
+                    "INSERT INTO scim_group (internal_id, displayname) VALUES (?, ?)");
+            PreparedStatement member = batch.prepare(
+                    "INSERT INTO scim_group_scim_id (scim_group_internal_id, members_internal_id) VALUES (?, ?)");
+
+            for (long n = 0; n < groups; n++) {
+                long internalId = groupInternalId(n);
+                Timestamp created = new Timestamp(CREATED + n * 1000);
+                meta.setLong(1, internalId + 1);
+                meta.setTimestamp(2, created);
+                meta.setTimestamp(3, created);
+                id.setLong(1, internalId);
+                id.setString(2, "group" + n);
+                id.setLong(3, internalId + 1);
+                id.setString(4, groupId(n));
+                group.setLong(1, internalId);
+                group.setString(2, String.format("group%06d", n));
+                batch.add(meta, id, group);
+
+                // a contiguous range of users, wrapping around, so no member set has to be held in memory
+                int size = groupSize(n);
+                long firstMember = size == users ? 0 : random.nextInt(users);
+                for (long m = 0; m < size; m++) {
+                    member.setLong(1, internalId);
+                    member.setLong(2, userInternalId((firstMember + m) % users));
+                    batch.add(member);
+                }
+            }
+        }
+    }
+
+    private long userInternalId(long n) {
+        return firstInternalId + n * 8;
+    }
+
+    private long groupInternalId(long n) {
+        return userInternalId(users) + n * 2;
+    }
+
+    /**
+     * A set of prepared statements that are executed in the order they were prepared, so rows referenced by foreign
+     * keys are always written before the rows referencing them.
+     */
+    private static final class Batch implements AutoCloseable {
+
+        private final Connection connection;
+        private final int batchSize;
+        private final List<PreparedStatement> statements = new ArrayList<>();
+        private int pending;
+
+        Batch(Connection connection, int batchSize) {
+            this.connection = connection;
+            this.batchSize = batchSize;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statements.add(statement);
+            return statement;
+        }
+
+        void add(PreparedStatement... rows) throws SQLException {
+            for (PreparedStatement row : rows) {
+                row.addBatch();
+                pending++;
+            }
+            if (pending >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            for (PreparedStatement statement : statements) {
+                statement.executeBatch();
+            }
+            connection.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                for (PreparedStatement statement : statements) {
+                    statement.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates a dataset into the database configured in <code>osiam.properties</code>. Supported system
+     * properties are dataset.users, dataset.groups, dataset.largestGroupSize and dataset.batchSize.
+     */
+    public static void main(String[] args) throws Exception {
+        ClassPathXmlApplicationContext ac = new ClassPathXmlApplicationContext("context.xml");
+        try {
+            Builder.fromSystemProperties().build().generate((DataSource) ac.getBean("dataSource"));
+        } finally {
+            ac.close();
+        }
+    }
+
+    public static class Builder {
+
+        private int users = 1000000;
+        private int groups = 1000;
+        private Integer largestGroupSize;
+        private int batchSize = 5000;
+        private long firstInternalId = 100000000L;
+        private long seed = 42;
+
+        /**
+         * @return a builder initialized from the dataset.* system properties
+         */
+        public static Builder fromSystemProperties() {
+            Builder builder = new Builder();
+            builder.setUsers(Integer.getInteger("dataset.users", builder.users));
+            builder.setGroups(Integer.getInteger("dataset.groups", builder.groups));
+            builder.setBatchSize(Integer.getInteger("dataset.batchSize", builder.batchSize));
+            Integer largestGroupSize = Integer.getInteger("dataset.largestGroupSize");
+            if (largestGroupSize != null) {
+                builder.setLargestGroupSize(largestGroupSize);
+            }
+            return builder;
+        }
+
+        public Builder setUsers(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Builder setGroups(int groups) {
+            this.groups = groups;
+            return this;
+        }
+
+        /**
+         * Defaults to the number of users, i.e. the first group contains every generated user.
+         */
+        public Builder setLargestGroupSize(int largestGroupSize) {
+            this.largestGroupSize = largestGroupSize;
+            return this;
+        }
+
+        public Builder setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder setFirstInternalId(long firstInternalId) {
+            this.firstInternalId = firstInternalId;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public DatasetGenerator build() {
+            if (users <= 0 || groups < 0 || batchSize <= 0) {
+                throw new IllegalStateException("users and batch size must be positive, groups not negative");
+            }
+            if (largestGroupSize == null) {
+                largestGroupSize = users;
+            }
+            return new DatasetGenerator(this);
+        }
+    }
+}
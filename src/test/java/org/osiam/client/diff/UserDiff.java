@@ -0,0 +1,550 @@
+package org.osiam.client.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Address;
+import org.osiam.resources.scim.MultiValuedAttribute;
+import org.osiam.resources.scim.User;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The minimal {@link UpdateUser} that turns one user into another, instead of an update that replaces every
+ * attribute. Single-valued attributes are only sent when they changed; multi-valued attributes are compared element by
+ * element, so only new or changed elements are added and only removed elements are deleted. An element is identified
+ * by its value, addresses, which have none, by all their fields. If all elements of an attribute are removed, the
+ * attribute is deleted as a whole.
+ * <p/>
+ * The desired user describes the complete target state: attributes that are null there are deleted. Passwords cannot
+ * be read back, so a password is sent whenever the desired user has one.
+ */
+public final class UserDiff {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final UpdateUser.Builder builder = new UpdateUser.Builder();
+    private final List<String> changes = new ArrayList<>();
+
+    private UserDiff() {
+    }
+
+    /**
+     * @param original the user as it is stored, usually just read with {@link OsiamOperations#getUser}
+     * @param desired  the user as it should be stored
+     */
+    public static UserDiff between(User original, User desired) {
+        UserDiff diff = new UserDiff();
+        diff.compareSingleValued(original, desired);
+        for (MultiValuedField field : MultiValuedField.values()) {
+            diff.compareMultiValued(field, field.of(original), field.of(desired));
+        }
+        return diff;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return one entry per changed attribute or element, like <code>update nickName</code> or
+     *         <code>delete emails[bjensen@example.com]</code>
+     */
+    public List<String> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    public UpdateUser toUpdateUser() {
+        return builder.build();
+    }
+
+    /**
+     * Sends the update, unless there is nothing to change.
+     *
+     * @return the updated user, or null if nothing was sent
+     */
+    public User apply(OsiamOperations connector, String id, AccessToken accessToken) {
+        if (isEmpty()) {
+            return null;
+        }
+        return connector.updateUser(id, toUpdateUser(), accessToken);
+    }
+
+    private void compareSingleValued(User original, User desired) {
+        if (changed(original.getUserName(), desired.getUserName()) && desired.getUserName() != null) {
+            builder.updateUserName(desired.getUserName());
+            changes.add("update userName");
+        }
+        if (desired.getPassword() != null) {
+            builder.updatePassword(desired.getPassword());
+            changes.add("update password");
+        }
+        Object active = desired.isActive();
+        if (changed(original.isActive(), active) && active != null) {
+            builder.updateActive(desired.isActive());
+            changes.add("update active");
+        }
+        if (changed(tree(original.getName()), tree(desired.getName()))) {
+            if (desired.getName() == null) {
+                builder.deleteName();
+                changes.add("delete name");
+            } else {
+                builder.updateName(desired.getName());
+                changes.add("update name");
+            }
+        }
+        for (StringField field : StringField.values()) {
+            String value = field.of(desired);
+            if (!changed(field.of(original), value)) {
+                continue;
+            }
+            if (value == null) {
+                field.delete(builder);
+                changes.add("delete " + field.attribute);
+            } else {
+                field.update(builder, value);
+                changes.add("update " + field.attribute);
+            }
+        }
+    }
+
+    private void compareMultiValued(MultiValuedField field, List<?> original, List<?> desired) {
+        Map<String, Object> originalByKey = byKey(field, original);
+        Map<String, Object> desiredByKey = byKey(field, desired);
+        if (!originalByKey.isEmpty() && desiredByKey.isEmpty()) {
+            field.deleteAll(builder);
+            changes.add("delete " + field.attribute);
+            return;
+        }
+        for (Map.Entry<String, Object> entry : originalByKey.entrySet()) {
+            if (!desiredByKey.containsKey(entry.getKey())) {
+                field.delete(builder, entry.getValue());
+                changes.add("delete " + field.attribute + "[" + entry.getKey() + "]");
+            }
+        }
+        for (Map.Entry<String, Object> entry : desiredByKey.entrySet()) {
+            Object originalElement = originalByKey.get(entry.getKey());
+            // an element with the value of an existing one replaces it
+            if (originalElement == null || changed(normalized(originalElement), normalized(entry.getValue()))) {
+                field.add(builder, entry.getValue());
+                changes.add("add " + field.attribute + "[" + entry.getKey() + "]");
+            }
+        }
+    }
+
+    private static Map<String, Object> byKey(MultiValuedField field, List<?> elements) {
+        Map<String, Object> byKey = new LinkedHashMap<>();
+        if (elements != null) {
+            for (Object element : elements) {
+                JsonNode normalized = normalized(element);
+                String key = field.keyedByValue ? normalized.path("value").asText() : normalized.toString();
+                byKey.put(key, element);
+            }
+        }
+        return byKey;
+    }
+
+    /**
+     * @return the element without the fields that do not describe its content, and without unset fields
+     */
+    private static JsonNode normalized(Object element) {
+        ObjectNode node = MAPPER.valueToTree(element);
+        node.remove("operation");
+        node.remove("id");
+        if (!node.path("primary").asBoolean()) {
+            node.remove("primary");
+        }
+        for (Iterator<JsonNode> values = node.elements(); values.hasNext(); ) {
+            if (values.next().isNull()) {
+                values.remove();
+            }
+        }
+        return node;
+    }
+
+    private static JsonNode tree(Object value) {
+        return value == null ? null : normalized(value);
+    }
+
+    private static boolean changed(Object original, Object desired) {
+        return original == null ? desired != null : !original.equals(desired);
+    }
+
+    private enum StringField {
+
+        NICK_NAME("nickName") {
+            @Override
+            String of(User user) {
+                return user.getNickName();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateNickName(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteNickName();
+            }
+        },
+        EXTERNAL_ID("externalId") {
+            @Override
+            String of(User user) {
+                return user.getExternalId();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateExternalId(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteExternalId();
+            }
+        },
+        DISPLAY_NAME("displayName") {
+            @Override
+            String of(User user) {
+                return user.getDisplayName();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateDisplayName(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteDisplayName();
+            }
+        },
+        LOCALE("locale") {
+            @Override
+            String of(User user) {
+                return user.getLocale();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateLocale(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteLocal();
+            }
+        },
+        PREFERRED_LANGUAGE("preferredLanguage") {
+            @Override
+            String of(User user) {
+                return user.getPreferredLanguage();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updatePreferredLanguage(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deletePreferredLanguage();
+            }
+        },
+        PROFILE_URL("profileUrl") {
+            @Override
+            String of(User user) {
+                return user.getProfileUrl();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateProfileUrl(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteProfileUrl();
+            }
+        },
+        TIMEZONE("timezone") {
+            @Override
+            String of(User user) {
+                return user.getTimezone();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateTimezone(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteTimezone();
+            }
+        },
+        TITLE("title") {
+            @Override
+            String of(User user) {
+                return user.getTitle();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateTitle(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteTitle();
+            }
+        },
+        USER_TYPE("userType") {
+            @Override
+            String of(User user) {
+                return user.getUserType();
+            }
+
+            @Override
+            void update(UpdateUser.Builder builder, String value) {
+                builder.updateUserType(value);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder) {
+                builder.deleteUserType();
+            }
+        };
+
+        final String attribute;
+
+        StringField(String attribute) {
+            this.attribute = attribute;
+        }
+
+        abstract String of(User user);
+
+        abstract void update(UpdateUser.Builder builder, String value);
+
+        abstract void delete(UpdateUser.Builder builder);
+    }
+
+    private enum MultiValuedField {
+
+        EMAILS("emails", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getEmails();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addEmail((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteEmail((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteEmails();
+            }
+        },
+        PHONE_NUMBERS("phoneNumbers", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getPhoneNumbers();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addPhoneNumber((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deletePhoneNumber((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deletePhoneNumbers();
+            }
+        },
+        IMS("ims", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getIms();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addIms((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteIms((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteIms();
+            }
+        },
+        PHOTOS("photos", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getPhotos();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addPhoto((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deletePhoto((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deletePhotos();
+            }
+        },
+        ENTITLEMENTS("entitlements", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getEntitlements();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addEntitlement((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteEntitlement((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteEntitlements();
+            }
+        },
+        ROLES("roles", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getRoles();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addRole((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteRole(MAPPER.valueToTree(element).path("value").asText());
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteRoles();
+            }
+        },
+        X509_CERTIFICATES("x509Certificates", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getX509Certificates();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addX509Certificate((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteX509Certificate((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteX509Certificates();
+            }
+        },
+        GROUPS("groups", true) {
+            @Override
+            List<?> of(User user) {
+                return user.getGroups();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addGroupMembership((MultiValuedAttribute) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteGroup(MAPPER.valueToTree(element).path("value").asText());
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteGroups();
+            }
+        },
+        ADDRESSES("addresses", false) {
+            @Override
+            List<?> of(User user) {
+                return user.getAddresses();
+            }
+
+            @Override
+            void add(UpdateUser.Builder builder, Object element) {
+                builder.addAddress((Address) element);
+            }
+
+            @Override
+            void delete(UpdateUser.Builder builder, Object element) {
+                builder.deleteAddress((Address) element);
+            }
+
+            @Override
+            void deleteAll(UpdateUser.Builder builder) {
+                builder.deleteAddresses();
+            }
+        };
+
+        final String attribute;
+        final boolean keyedByValue;
+
+        MultiValuedField(String attribute, boolean keyedByValue) {
+            this.attribute = attribute;
+            this.keyedByValue = keyedByValue;
+        }
+
+        abstract List<?> of(User user);
+
+        abstract void add(UpdateUser.Builder builder, Object element);
+
+        abstract void delete(UpdateUser.Builder builder, Object element);
+
+        abstract void deleteAll(UpdateUser.Builder builder);
+    }
+}
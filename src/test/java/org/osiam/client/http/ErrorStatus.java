@@ -0,0 +1,61 @@
+package org.osiam.client.http;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.osiam.client.exception.ConflictException;
+import org.osiam.client.exception.ForbiddenException;
+import org.osiam.client.exception.NoResultException;
+import org.osiam.client.exception.NotFoundException;
+import org.osiam.client.exception.UnauthorizedException;
+
+/**
+ * Recovers the HTTP status of a failed connector call from its exception, since the connector does not expose its
+ * responses. Client errors have their own exceptions; any other status, e.g. 400 or 503, is only mentioned in the
+ * message, like <code>Unable to setup connection (HTTP Status Code: 503)</code>. I/O failures carry their
+ * {@link IOException} as cause.
+ */
+public final class ErrorStatus {
+
+    private static final Pattern STATUS_IN_MESSAGE = Pattern.compile("(?i)status(?: code)?\\D{0,3}([1-5]\\d\\d)\\b");
+
+    private ErrorStatus() {
+    }
+
+    /**
+     * @return the status of the response the call failed with, or 0 if no response was received or its status is
+     *         unknown
+     */
+    public static int of(RuntimeException error) {
+        if (error instanceof ConflictException) {
+            return 409;
+        }
+        if (error instanceof NoResultException || error instanceof NotFoundException) {
+            return 404;
+        }
+        if (error instanceof UnauthorizedException) {
+            return 401;
+        }
+        if (error instanceof ForbiddenException) {
+            return 403;
+        }
+        if (isIoFailure(error) || error.getMessage() == null) {
+            return 0;
+        }
+        Matcher matcher = STATUS_IN_MESSAGE.matcher(error.getMessage());
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    /**
+     * @return whether the call failed in I/O, i.e. before a complete response was received
+     */
+    public static boolean isIoFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,191 @@
+package org.osiam.client.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DecompressingHttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * A bounded pool of keep-alive HTTP connections that any number of HTTP clients can share, so that TCP and TLS
+ * connections are set up once per route instead of once per call. Every client created by {@link #newHttpClient()}
+ * has its own cookies and parameters, only the connections are shared. Connections idle for longer than the idle
+ * timeout are closed by a background thread.
+ * <p/>
+ * Callers must release every connection they lease, by consuming the response entity or by calling
+ * <code>releaseConnection()</code> on the request.
+ */
+public class SharedHttpConnectionPool {
+
+    private final CountingConnectionManager connectionManager;
+    private final long idleTimeoutMillis;
+    private final Thread evictor;
+
+    private SharedHttpConnectionPool(Builder builder) {
+        connectionManager = new CountingConnectionManager(SchemeRegistryFactory.createDefault());
+        connectionManager.setMaxTotal(builder.maxTotal);
+        connectionManager.setDefaultMaxPerRoute(builder.maxPerRoute);
+        idleTimeoutMillis = builder.idleTimeoutMillis;
+        evictor = new Thread(new IdleConnectionEvictor(builder.evictionIntervalMillis), "http-connection-evictor");
+        evictor.setDaemon(true);
+        evictor.start();
+    }
+
+    /**
+     * @return the pool shared by the whole JVM, with the default limits
+     */
+    public static SharedHttpConnectionPool getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return a client that counts the body bytes of every exchange, see {@link TransferredBytes}
+     */
+    public DefaultHttpClient newHttpClient() {
+        DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager);
+        httpClient.addRequestInterceptor(TransferredBytes.REQUEST_INTERCEPTOR);
+        httpClient.addResponseInterceptor(TransferredBytes.RESPONSE_INTERCEPTOR);
+        return httpClient;
+    }
+
+    /**
+     * @return a client that asks for gzip or deflate compressed responses and transparently decompresses them
+     */
+    public HttpClient newCompressingHttpClient() {
+        return new DecompressingHttpClient(newHttpClient());
+    }
+
+    /**
+     * Sets the limit of concurrent connections to one route, e.g. one OSIAM host and port, overriding the default
+     * per route limit.
+     */
+    public void setMaxPerRoute(HttpRoute route, int max) {
+        connectionManager.setMaxPerRoute(route, max);
+    }
+
+    /**
+     * @return the number of connections opened since the pool was created, connections that were reused are counted
+     *         once
+     */
+    public long getConnectionsCreated() {
+        return connectionManager.connectionsCreated.get();
+    }
+
+    /**
+     * @return the number of leased, available and pending connections and the maximum of the whole pool
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public PoolStats getStats(HttpRoute route) {
+        return connectionManager.getStats(route);
+    }
+
+    public void shutdown() {
+        evictor.interrupt();
+        connectionManager.shutdown();
+    }
+
+    private class IdleConnectionEvictor implements Runnable {
+
+        private final long intervalMillis;
+
+        IdleConnectionEvictor(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(intervalMillis);
+                    connectionManager.closeExpiredConnections();
+                    connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class CountingConnectionManager extends PoolingClientConnectionManager {
+
+        private final AtomicLong connectionsCreated = new AtomicLong();
+
+        CountingConnectionManager(SchemeRegistry schemeRegistry) {
+            super(schemeRegistry);
+        }
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemeRegistry) {
+            return new DefaultClientConnectionOperator(schemeRegistry) {
+                @Override
+                public OperatedClientConnection createConnection() {
+                    connectionsCreated.incrementAndGet();
+                    return super.createConnection();
+                }
+            };
+        }
+    }
+
+    private static class DefaultHolder {
+        static final SharedHttpConnectionPool INSTANCE = new Builder().build();
+    }
+
+    public static class Builder {
+
+        private int maxTotal = 100;
+        private int maxPerRoute = 20;
+        private long idleTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+        private long evictionIntervalMillis = TimeUnit.SECONDS.toMillis(5);
+
+        /**
+         * @param maxTotal the maximum number of connections of the pool, default 100
+         */
+        public Builder setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+            return this;
+        }
+
+        /**
+         * @param maxPerRoute the default maximum number of connections per route, default 20
+         */
+        public Builder setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+            return this;
+        }
+
+        /**
+         * @param idleTimeout how long a connection may be idle before it is closed, default 30 seconds
+         */
+        public Builder setIdleTimeout(long idleTimeout, TimeUnit unit) {
+            idleTimeoutMillis = unit.toMillis(idleTimeout);
+            return this;
+        }
+
+        /**
+         * @param evictionInterval how often idle and expired connections are closed, default every 5 seconds
+         */
+        public Builder setEvictionInterval(long evictionInterval, TimeUnit unit) {
+            evictionIntervalMillis = unit.toMillis(evictionInterval);
+            return this;
+        }
+
+        public SharedHttpConnectionPool build() {
+            if (maxTotal <= 0 || maxPerRoute <= 0) {
+                throw new IllegalStateException("The pool limits must be positive");
+            }
+            return new SharedHttpConnectionPool(this);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.osiam.client.http;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * The bytes of the message bodies of one exchange, counted as they pass the connection of a client created by
+ * {@link SharedHttpConnectionPool}: a compressed response is counted compressed, HTTP headers are not counted. Pass
+ * an <code>HttpContext</code> to <code>execute</code> and read the counts with {@link #of(HttpContext)} once the
+ * response body was consumed or the response was closed.
+ */
+public final class TransferredBytes {
+
+    private static final String ATTRIBUTE = TransferredBytes.class.getName();
+
+    static final HttpRequestInterceptor REQUEST_INTERCEPTOR = new HttpRequestInterceptor() {
+        @Override
+        public void process(HttpRequest request, HttpContext context) {
+            if (request instanceof HttpEntityEnclosingRequest) {
+                HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+                HttpEntity entity = enclosing.getEntity();
+                // a retried request keeps its wrapped entity
+                if (entity != null && !(entity instanceof CountingEntity)) {
+                    enclosing.setEntity(new CountingEntity(entity, of(context).sent));
+                }
+            }
+        }
+    };
+
+    static final HttpResponseInterceptor RESPONSE_INTERCEPTOR = new HttpResponseInterceptor() {
+        @Override
+        public void process(HttpResponse response, HttpContext context) {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                response.setEntity(new CountingEntity(entity, of(context).received));
+            }
+        }
+    };
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    private TransferredBytes() {
+    }
+
+    /**
+     * @return the counts of the exchange executed with the given context, created on first use
+     */
+    public static TransferredBytes of(HttpContext context) {
+        synchronized (context) {
+            TransferredBytes bytes = (TransferredBytes) context.getAttribute(ATTRIBUTE);
+            if (bytes == null) {
+                bytes = new TransferredBytes();
+                context.setAttribute(ATTRIBUTE, bytes);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * @return the bytes of the request body written to the connection so far
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    /**
+     * @return the bytes of the response body read from the connection so far
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    private static class CountingEntity extends HttpEntityWrapper {
+
+        private final AtomicLong count;
+
+        CountingEntity(HttpEntity entity, AtomicLong count) {
+            super(entity);
+            this.count = count;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) {
+                        count.incrementAndGet();
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        count.addAndGet(n);
+                    }
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    count.addAndGet(skipped);
+                    return skipped;
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            super.writeTo(new FilterOutputStream(out) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    count.incrementAndGet();
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    out.write(buffer, offset, length);
+                    count.addAndGet(length);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.osiam.client.load;
+
+import java.util.UUID;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.resources.scim.User;
+
+/**
+ * Creates a user, reads it back and deletes it again, like UserServiceIT and EditUserServiceIT do.
+ */
+public class CreateDeleteUserScenario implements Scenario {
+
+    @Override
+    public String getName() {
+        return "createDeleteUser";
+    }
+
+    @Override
+    public void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder) {
+        User newUser = new User.Builder("load-" + UUID.randomUUID()).build();
+
+        recorder.begin("createUser");
+        User createdUser = oConnector.createUser(newUser, accessToken);
+        recorder.end();
+
+        recorder.begin("getUser");
+        oConnector.getUser(createdUser.getId(), accessToken);
+        recorder.end();
+
+        recorder.begin("deleteUser");
+        oConnector.deleteUser(createdUser.getId(), accessToken);
+        recorder.end();
+    }
+}
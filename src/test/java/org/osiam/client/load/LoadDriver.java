@@ -0,0 +1,252 @@
+package org.osiam.client.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+
+/**
+ * Replays weighted {@link Scenario}s with a fixed number of concurrent virtual users against a running OSIAM and
+ * collects per operation latency histograms. Every virtual user runs in its own thread with its own connector and
+ * access token and picks the next scenario randomly by weight, without think time.
+ * <p/>
+ * Run with <code>mvn verify -Pload</code>, see {@link #main(String[])} for the supported system properties.
+ */
+public class LoadDriver {
+
+    private final String authEndpoint;
+    private final String resourceEndpoint;
+    private final int virtualUsers;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final List<Scenario> scenarios;
+    private final int[] cumulativeWeights;
+
+    private LoadDriver(Builder builder) {
+        authEndpoint = builder.authEndpoint;
+        resourceEndpoint = builder.resourceEndpoint;
+        virtualUsers = builder.virtualUsers;
+        warmupNanos = builder.warmupNanos;
+        durationNanos = builder.durationNanos;
+        scenarios = new ArrayList<>(builder.scenarios);
+        cumulativeWeights = new int[builder.weights.size()];
+        int sum = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            sum += builder.weights.get(i);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public LoadResult run() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(virtualUsers);
+        final List<OperationRecorder> recorders = new ArrayList<>();
+        final List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < virtualUsers; i++) {
+            OperationRecorder recorder = new OperationRecorder();
+            recorders.add(recorder);
+            users.add(new VirtualUser(recorder, started));
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            Thread thread = new Thread(users.get(i), "virtual-user-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        started.await();
+
+        TimeUnit.NANOSECONDS.sleep(warmupNanos);
+        for (OperationRecorder recorder : recorders) {
+            recorder.setRecording(true);
+        }
+        long measurementStart = System.nanoTime();
+        TimeUnit.NANOSECONDS.sleep(durationNanos);
+        for (OperationRecorder recorder : recorders) {
+            recorder.setRecording(false);
+        }
+        long measured = System.nanoTime() - measurementStart;
+
+        for (VirtualUser user : users) {
+            user.stop();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LoadResult result = new LoadResult(measured, virtualUsers);
+        for (OperationRecorder recorder : recorders) {
+            result.add(recorder);
+        }
+        return result;
+    }
+
+    private Scenario nextScenario() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("No scenario for weight " + pick);
+    }
+
+    private class VirtualUser implements Runnable {
+
+        private final OperationRecorder recorder;
+        private final CountDownLatch started;
+        private volatile boolean running = true;
+
+        VirtualUser(OperationRecorder recorder, CountDownLatch started) {
+            this.recorder = recorder;
+            this.started = started;
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        @Override
+        public void run() {
+            OsiamConnector oConnector = new OsiamConnector.Builder().
+                    setAuthServiceEndpoint(authEndpoint).
+                    setResourceEndpoint(resourceEndpoint).
+                    setClientId("example-client").
+                    setClientSecret("secret").
+                    setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                    setUserName("marissa").
+                    setPassword("koala").
+                    setScope(Scope.ALL).build();
+            AccessToken accessToken;
+            try {
+                accessToken = oConnector.retrieveAccessToken();
+            } finally {
+                started.countDown();
+            }
+
+            while (running) {
+                try {
+                    if (accessToken.isExpired()) {
+                        // counted like any other call, a failed refresh is retried in the next iteration
+                        recorder.begin("retrieveAccessToken");
+                        accessToken = oConnector.retrieveAccessToken();
+                        recorder.end();
+                    }
+                    nextScenario().run(oConnector, accessToken, recorder);
+                } catch (RuntimeException e) {
+                    recorder.abort();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the load driver from the command line. Supported system properties:
+     * <ul>
+     * <li>load.authEndpoint, load.resourceEndpoint: the OSIAM endpoints, default from {@link TestEnvironment}</li>
+     * <li>load.virtualUsers: the number of concurrent virtual users, default 10</li>
+     * <li>load.warmupSeconds, load.durationSeconds: default 10 and 60</li>
+     * <li>load.weights: the scenario weights, default
+     * <code>searchUser:6,createDeleteUser:2,updateUser:1,updateGroup:1</code></li>
+     * </ul>
+     */
+    public static void main(String[] args) throws Exception {
+        DatabaseSeeder.seed();
+
+        Builder builder = new Builder()
+                .setAuthEndpoint(System.getProperty("load.authEndpoint", Builder.DEFAULT_AUTH_ENDPOINT))
+                .setResourceEndpoint(System.getProperty("load.resourceEndpoint", Builder.DEFAULT_RESOURCE_ENDPOINT))
+                .setVirtualUsers(Integer.getInteger("load.virtualUsers", 10))
+                .setWarmup(Integer.getInteger("load.warmupSeconds", 10), TimeUnit.SECONDS)
+                .setDuration(Integer.getInteger("load.durationSeconds", 60), TimeUnit.SECONDS);
+
+        String weights = System.getProperty("load.weights",
+                "searchUser:6,createDeleteUser:2,updateUser:1,updateGroup:1");
+        List<Scenario> knownScenarios = new ArrayList<>();
+        knownScenarios.add(new SearchUserScenario());
+        knownScenarios.add(new CreateDeleteUserScenario());
+        knownScenarios.add(new UpdateUserScenario());
+        knownScenarios.add(new UpdateGroupScenario());
+        for (String weight : weights.split(",")) {
+            String[] nameAndWeight = weight.trim().split(":");
+            builder.addScenario(findScenario(knownScenarios, nameAndWeight[0]), Integer.parseInt(nameAndWeight[1]));
+        }
+
+        builder.build().run().print(System.out);
+    }
+
+    private static Scenario findScenario(List<Scenario> scenarios, String name) {
+        for (Scenario scenario : scenarios) {
+            if (scenario.getName().equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + name);
+    }
+
+    public static class Builder {
+
+        static final String DEFAULT_AUTH_ENDPOINT = TestEnvironment.AUTH_ENDPOINT_ADDRESS;
+        static final String DEFAULT_RESOURCE_ENDPOINT = TestEnvironment.RESOURCE_ENDPOINT_ADDRESS;
+
+        private String authEndpoint = DEFAULT_AUTH_ENDPOINT;
+        private String resourceEndpoint = DEFAULT_RESOURCE_ENDPOINT;
+        private int virtualUsers = 1;
+        private long warmupNanos;
+        private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+        private final List<Scenario> scenarios = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+
+        public Builder setAuthEndpoint(String authEndpoint) {
+            this.authEndpoint = authEndpoint;
+            return this;
+        }
+
+        public Builder setResourceEndpoint(String resourceEndpoint) {
+            this.resourceEndpoint = resourceEndpoint;
+            return this;
+        }
+
+        public Builder setVirtualUsers(int virtualUsers) {
+            this.virtualUsers = virtualUsers;
+            return this;
+        }
+
+        public Builder setWarmup(long warmup, TimeUnit unit) {
+            warmupNanos = unit.toNanos(warmup);
+            return this;
+        }
+
+        public Builder setDuration(long duration, TimeUnit unit) {
+            durationNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder addScenario(Scenario scenario, int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("The weight of " + scenario.getName() + " must be positive");
+            }
+            scenarios.add(scenario);
+            weights.add(weight);
+            return this;
+        }
+
+        public LoadDriver build() {
+            if (scenarios.isEmpty()) {
+                throw new IllegalStateException("At least one scenario is needed");
+            }
+            if (virtualUsers <= 0) {
+                throw new IllegalStateException("At least one virtual user is needed");
+            }
+            return new LoadDriver(this);
+        }
+    }
+}
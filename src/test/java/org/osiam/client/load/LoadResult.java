@@ -0,0 +1,105 @@
+package org.osiam.client.load;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The merged latency histograms and error counts of all virtual users of one load run. Latencies are in
+ * microseconds.
+ */
+public class LoadResult {
+
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, Long> errors = new TreeMap<>();
+    private final long durationNanos;
+    private final int virtualUsers;
+
+    LoadResult(long durationNanos, int virtualUsers) {
+        this.durationNanos = durationNanos;
+        this.virtualUsers = virtualUsers;
+    }
+
+    void add(OperationRecorder recorder) {
+        for (Map.Entry<String, Histogram> entry : recorder.getHistograms().entrySet()) {
+            Histogram histogram = histograms.get(entry.getKey());
+            if (histogram == null) {
+                histogram = new Histogram(OperationRecorder.HIGHEST_TRACKABLE_LATENCY,
+                        OperationRecorder.SIGNIFICANT_DIGITS);
+                histograms.put(entry.getKey(), histogram);
+            }
+            histogram.add(entry.getValue());
+        }
+        for (Map.Entry<String, Long> entry : recorder.getErrors().entrySet()) {
+            Long count = errors.get(entry.getKey());
+            errors.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+        }
+    }
+
+    public Set<String> getOperations() {
+        Set<String> operations = new TreeSet<>(histograms.keySet());
+        operations.addAll(errors.keySet());
+        return operations;
+    }
+
+    public Histogram getHistogram(String operation) {
+        return histograms.get(operation);
+    }
+
+    public long getCount(String operation) {
+        Histogram histogram = histograms.get(operation);
+        return histogram == null ? 0 : histogram.getTotalCount();
+    }
+
+    public long getErrors(String operation) {
+        Long count = errors.get(operation);
+        return count == null ? 0 : count;
+    }
+
+    public long getPercentile(String operation, double percentile) {
+        Histogram histogram = histograms.get(operation);
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return the successful calls of the given operation per second
+     */
+    public double getThroughput(String operation) {
+        return getCount(operation) / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%d virtual users, %.1f s measured%n", virtualUsers,
+                durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        out.printf("%-24s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (String operation : getOperations()) {
+            out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation,
+                    getCount(operation),
+                    getErrors(operation),
+                    getThroughput(operation),
+                    toMillis(getPercentile(operation, 50.0)),
+                    toMillis(getPercentile(operation, 99.0)),
+                    toMillis(getPercentile(operation, 99.9)),
+                    toMillis(getPercentile(operation, 100.0)));
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,74 @@
+package org.osiam.client.load;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Records the latencies of one virtual user. Every virtual user owns its recorder, so no synchronization is needed
+ * while recording; the histograms are merged after the run.
+ */
+public class OperationRecorder {
+
+    static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toMicros(1);
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Histogram> histograms = new HashMap<>();
+    private final Map<String, Long> errors = new HashMap<>();
+    private volatile boolean recording;
+    private String operation;
+    private long startNanos;
+
+    /**
+     * Starts timing the given operation. Must be followed by {@link #end()} once the call returned.
+     */
+    public void begin(String operation) {
+        this.operation = operation;
+        startNanos = System.nanoTime();
+    }
+
+    public void end() {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        if (recording) {
+            histogram(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_LATENCY));
+        }
+        operation = null;
+    }
+
+    /**
+     * Counts the pending operation as failed, called by the driver if a scenario throws.
+     */
+    void abort() {
+        if (operation == null) {
+            return;
+        }
+        if (recording) {
+            Long count = errors.get(operation);
+            errors.put(operation, count == null ? 1L : count + 1);
+        }
+        operation = null;
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    private Histogram histogram(String operation) {
+        Histogram histogram = histograms.get(operation);
+        if (histogram == null) {
+            histogram = new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+            histograms.put(operation, histogram);
+        }
+        return histogram;
+    }
+}
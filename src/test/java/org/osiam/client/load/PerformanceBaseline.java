@@ -0,0 +1,101 @@
+package org.osiam.client.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The p99 latency and throughput per operation of a reference run of the {@link PerformanceGateScenario}, stored as
+ * properties <code>&lt;operation&gt;.p99Micros</code> and <code>&lt;operation&gt;.throughput</code>, plus the number
+ * of virtual users the reference run used.
+ */
+public class PerformanceBaseline {
+
+    private static final String VIRTUAL_USERS = "virtualUsers";
+    private static final String P99 = ".p99Micros";
+    private static final String THROUGHPUT = ".throughput";
+
+    private final Properties properties;
+
+    private PerformanceBaseline(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static PerformanceBaseline load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        return new PerformanceBaseline(properties);
+    }
+
+    public static PerformanceBaseline of(LoadResult result) {
+        Properties properties = new Properties();
+        properties.setProperty(VIRTUAL_USERS, String.valueOf(result.getVirtualUsers()));
+        for (String operation : result.getOperations()) {
+            properties.setProperty(operation + P99, String.valueOf(result.getPercentile(operation, 99.0)));
+            properties.setProperty(operation + THROUGHPUT, String.format(Locale.ROOT, "%.1f", result.getThroughput(operation)));
+        }
+        return new PerformanceBaseline(properties);
+    }
+
+    public void store(OutputStream out) throws IOException {
+        properties.store(out, "Performance baseline, see PerformanceGate");
+    }
+
+    public int getVirtualUsers() {
+        return Integer.parseInt(properties.getProperty(VIRTUAL_USERS, "1"));
+    }
+
+    public Set<String> getOperations() {
+        Set<String> operations = new TreeSet<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(P99)) {
+                operations.add(key.substring(0, key.length() - P99.length()));
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Compares a run against this baseline. A tolerance of 0.2 allows the p99 latency to grow and the throughput to
+     * drop by 20% per operation.
+     *
+     * @return a description of every regression, empty if there is none
+     */
+    public List<String> compare(LoadResult result, double latencyTolerance, double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (result.getVirtualUsers() != getVirtualUsers()) {
+            regressions.add("The baseline was recorded with " + getVirtualUsers() + " virtual users, not "
+                    + result.getVirtualUsers());
+            return regressions;
+        }
+        for (String operation : getOperations()) {
+            long errors = result.getErrors(operation);
+            if (errors > 0) {
+                regressions.add(String.format("%s: %d errors", operation, errors));
+            }
+            if (result.getCount(operation) == 0) {
+                regressions.add(String.format("%s: no successful calls", operation));
+                continue;
+            }
+            long baselineP99 = Long.parseLong(properties.getProperty(operation + P99));
+            long p99 = result.getPercentile(operation, 99.0);
+            if (p99 > baselineP99 * (1 + latencyTolerance)) {
+                regressions.add(String.format("%s: p99 %.2f ms, baseline %.2f ms", operation,
+                        p99 / 1000.0, baselineP99 / 1000.0));
+            }
+            double baselineThroughput = Double.parseDouble(properties.getProperty(operation + THROUGHPUT));
+            double throughput = result.getThroughput(operation);
+            if (throughput < baselineThroughput * (1 - throughputTolerance)) {
+                regressions.add(String.format("%s: %.1f ops/s, baseline %.1f ops/s", operation,
+                        throughput, baselineThroughput));
+            }
+        }
+        return regressions;
+    }
+}
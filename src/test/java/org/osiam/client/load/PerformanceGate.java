@@ -0,0 +1,77 @@
+package org.osiam.client.load;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.server.EmbeddedOsiamRule;
+
+/**
+ * Fails the build if the {@link PerformanceGateScenario} got slower than the checked-in performance-baseline.properties
+ * allows. The name does not match the failsafe includes on purpose, it only runs with
+ * <code>mvn verify -Pperformance-gate</code>. Supported system properties:
+ * <ul>
+ * <li>performance.latencyTolerance, performance.throughputTolerance: the allowed relative regression of the p99
+ * latency and the throughput, default 0.25</li>
+ * <li>performance.warmupSeconds, performance.durationSeconds: default 10 and 30</li>
+ * <li>performance.recordBaseline: a file to write the results of this run to as new baseline instead of comparing</li>
+ * </ul>
+ */
+public class PerformanceGate {
+
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
+    private static final String BASELINE = "/performance-baseline.properties";
+
+    @BeforeClass
+    public static void seedDatabase() throws Exception {
+        DatabaseSeeder.seed();
+    }
+
+    @Test
+    public void scenario_did_not_regress() throws Exception {
+        PerformanceBaseline baseline;
+        try (InputStream in = getClass().getResourceAsStream(BASELINE)) {
+            baseline = PerformanceBaseline.load(in);
+        }
+
+        LoadResult result = new LoadDriver.Builder()
+                .setVirtualUsers(baseline.getVirtualUsers())
+                .setWarmup(Integer.getInteger("performance.warmupSeconds", 10), TimeUnit.SECONDS)
+                .setDuration(Integer.getInteger("performance.durationSeconds", 30), TimeUnit.SECONDS)
+                .addScenario(new PerformanceGateScenario(), 1)
+                .build().run();
+        result.print(System.out);
+
+        String recordBaseline = System.getProperty("performance.recordBaseline");
+        if (recordBaseline != null && !recordBaseline.isEmpty()) {
+            try (OutputStream out = new FileOutputStream(new File(recordBaseline))) {
+                PerformanceBaseline.of(result).store(out);
+            }
+            return;
+        }
+
+        List<String> regressions = baseline.compare(result,
+                Double.parseDouble(System.getProperty("performance.latencyTolerance", "0.25")),
+                Double.parseDouble(System.getProperty("performance.throughputTolerance", "0.25")));
+        assertTrue("Performance regressed against the baseline:\n" + join(regressions), regressions.isEmpty());
+    }
+
+    private static String join(List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append("  ").append(line).append('\n');
+        }
+        return sb.toString();
+    }
+}
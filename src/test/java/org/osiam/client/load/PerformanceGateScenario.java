@@ -0,0 +1,57 @@
+package org.osiam.client.load;
+
+import java.util.UUID;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.metamodel.User_;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.User;
+
+/**
+ * The fixed scenario of the {@link PerformanceGate}: retrieves a token, reads and searches a seeded user and creates,
+ * updates and deletes a new one. Its operations are the keys of the performance baseline, so renaming one
+ * invalidates the baseline.
+ */
+public class PerformanceGateScenario implements Scenario {
+
+    private static final String VALID_USER_ID = "834b410a-943b-4c80-817a-4465aed037bc";
+
+    @Override
+    public String getName() {
+        return "performanceGate";
+    }
+
+    @Override
+    public void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder) {
+        recorder.begin("retrieveAccessToken");
+        oConnector.retrieveAccessToken();
+        recorder.end();
+
+        recorder.begin("getUser");
+        oConnector.getUser(VALID_USER_ID, accessToken);
+        recorder.end();
+
+        Query.Filter filter = new Query.Filter(User.class, User_.userName.equalTo("bjensen"));
+        Query query = new Query.Builder(User.class).setFilter(filter).build();
+
+        recorder.begin("searchUsersByFilter");
+        oConnector.searchUsers(query, accessToken);
+        recorder.end();
+
+        recorder.begin("createUser");
+        User createdUser = oConnector.createUser(new User.Builder("gate-" + UUID.randomUUID()).build(), accessToken);
+        recorder.end();
+
+        UpdateUser updateUser = new UpdateUser.Builder().updateNickName("NickName").build();
+
+        recorder.begin("updateUser");
+        oConnector.updateUser(createdUser.getId(), updateUser, accessToken);
+        recorder.end();
+
+        recorder.begin("deleteUser");
+        oConnector.deleteUser(createdUser.getId(), accessToken);
+        recorder.end();
+    }
+}
@@ -0,0 +1,18 @@
+package org.osiam.client.load;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+
+/**
+ * A flow of connector calls that is replayed by every virtual user of the {@link LoadDriver}. Implementations must
+ * be stateless, as one instance is shared by all virtual users.
+ */
+public interface Scenario {
+
+    String getName();
+
+    /**
+     * Executes the flow once. Every single connector call is reported to the recorder with its own operation name.
+     */
+    void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder);
+}
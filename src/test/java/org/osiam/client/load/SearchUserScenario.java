@@ -0,0 +1,43 @@
+package org.osiam.client.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.SortOrder;
+import org.osiam.client.query.metamodel.User_;
+import org.osiam.resources.scim.User;
+
+/**
+ * Searches the seeded users by filter and pages through a sorted result, like SearchUserServiceIT does.
+ */
+public class SearchUserScenario implements Scenario {
+
+    private static final String[] USER_NAMES = {"bjensen", "jcambell", "adavies", "cmiller", "dcooper", "epalmer",
+            "gparker", "hsimpson", "kmorris", "ewilley", "marissa"};
+    private static final int ITEMS_PER_PAGE = 3;
+
+    @Override
+    public String getName() {
+        return "searchUser";
+    }
+
+    @Override
+    public void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder) {
+        String userName = USER_NAMES[ThreadLocalRandom.current().nextInt(USER_NAMES.length)];
+        Query.Filter filter = new Query.Filter(User.class, User_.userName.equalTo(userName));
+        Query filterQuery = new Query.Builder(User.class).setFilter(filter).build();
+
+        recorder.begin("searchUsersByFilter");
+        oConnector.searchUsers(filterQuery, accessToken);
+        recorder.end();
+
+        Query pageQuery = new Query.Builder(User.class).setCountPerPage(ITEMS_PER_PAGE)
+                .setSortBy(User_.userName).setSortOrder(SortOrder.ASCENDING).build().nextPage();
+
+        recorder.begin("searchUsersSortedPage");
+        oConnector.searchUsers(pageQuery, accessToken);
+        recorder.end();
+    }
+}
@@ -0,0 +1,94 @@
+package org.osiam.client.load;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.server.EmbeddedOsiamRule;
+import org.osiam.client.server.TokenValidationCache;
+
+/**
+ * Reads the same user with the same access token from concurrent virtual users, once with the
+ * {@link TokenValidationCache} of the resource server turned off and once turned on, and fails if the throughput with
+ * the cache is not at least scale.minTokenCacheSpeedup times higher. The cache is switched at runtime, so the
+ * resource server must run in the test JVM: <code>mvn verify -Pscale -Djetty.skip=true</code>. Supported system
+ * properties:
+ * <ul>
+ * <li>scale.minTokenCacheSpeedup: default 1.2</li>
+ * <li>load.virtualUsers: default 10</li>
+ * <li>load.warmupSeconds, load.durationSeconds: per run, default 5 and 20</li>
+ * </ul>
+ */
+public class TokenValidationCacheScale {
+
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
+    private static final String USER_ID = "834b410a-943b-4c80-817a-4465aed037bc";
+    private static final double MIN_SPEEDUP =
+            Double.parseDouble(System.getProperty("scale.minTokenCacheSpeedup", "1.2"));
+
+    @BeforeClass
+    public static void seedDatabase() throws Exception {
+        DatabaseSeeder.seed();
+    }
+
+    @Test
+    public void cached_validations_increase_the_throughput() throws Exception {
+        TokenValidationCache cache = TokenValidationCache.getInstance();
+        assumeTrue("The resource server does not run in this JVM, run with -Djetty.skip=true", cache != null);
+
+        double uncached;
+        double cached;
+        try {
+            cache.setEnabled(false);
+            uncached = run("uncached");
+            cache.setEnabled(true);
+            cached = run("cached");
+        } finally {
+            cache.setEnabled(true);
+        }
+
+        System.out.printf("%ngetUser with the same token: %.1f requests/s without, %.1f requests/s with the token "
+                + "validation cache (%d hits, %d misses)%n", uncached, cached, cache.getHits(), cache.getMisses());
+        assertTrue("The token validation cache increased the throughput only " + cached / uncached
+                + " times, at least " + MIN_SPEEDUP + " is expected", cached >= uncached * MIN_SPEEDUP);
+    }
+
+    private static double run(String name) throws InterruptedException {
+        LoadResult result = new LoadDriver.Builder()
+                .setVirtualUsers(Integer.getInteger("load.virtualUsers", 10))
+                .setWarmup(Integer.getInteger("load.warmupSeconds", 5), TimeUnit.SECONDS)
+                .setDuration(Integer.getInteger("load.durationSeconds", 20), TimeUnit.SECONDS)
+                .addScenario(new GetUserScenario(), 1)
+                .build().run();
+        System.out.printf("%n%s:%n", name);
+        result.print(System.out);
+        return result.getThroughput("getUser");
+    }
+
+    /**
+     * One read per run, so that every request validates the token of the virtual user.
+     */
+    private static class GetUserScenario implements Scenario {
+
+        @Override
+        public String getName() {
+            return "getUser";
+        }
+
+        @Override
+        public void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder) {
+            recorder.begin("getUser");
+            oConnector.getUser(USER_ID, accessToken);
+            recorder.end();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.osiam.client.load;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.MultiValuedAttribute;
+
+/**
+ * Creates a group with members, adds and removes members and deletes the group again, like UpdateGroupIT does.
+ */
+public class UpdateGroupScenario implements Scenario {
+
+    private static final String ID_USER_BTHOMSON = "618b398c-0110-43f2-95df-d1bc4e7d2b4a";
+    private static final String ID_USER_CMILLER = "ac3bacc9-915d-4bab-9145-9eb600d5e5bf";
+    private static final String ID_USER_HSIMPSON = "7d33bcbe-a54c-43d8-867e-f6146164941e";
+
+    @Override
+    public String getName() {
+        return "updateGroup";
+    }
+
+    @Override
+    public void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder) {
+        Set<MultiValuedAttribute> members = new HashSet<>();
+        members.add(new MultiValuedAttribute.Builder().setValue(ID_USER_BTHOMSON).build());
+        members.add(new MultiValuedAttribute.Builder().setValue(ID_USER_CMILLER).build());
+        Group newGroup = new Group.Builder().setDisplayName("load-" + UUID.randomUUID())
+                .setMembers(members).build();
+
+        recorder.begin("createGroup");
+        Group createdGroup = oConnector.createGroup(newGroup, accessToken);
+        recorder.end();
+
+        UpdateGroup updateGroup = new UpdateGroup.Builder()
+                .addMember(ID_USER_HSIMPSON)
+                .deleteMember(ID_USER_CMILLER)
+                .build();
+
+        recorder.begin("updateGroup");
+        oConnector.updateGroup(createdGroup.getId(), updateGroup, accessToken);
+        recorder.end();
+
+        recorder.begin("deleteGroup");
+        oConnector.deleteGroup(createdGroup.getId(), accessToken);
+        recorder.end();
+    }
+}
@@ -0,0 +1,47 @@
+package org.osiam.client.load;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.MultiValuedAttribute;
+import org.osiam.resources.scim.User;
+
+/**
+ * Creates a user with an email, changes single valued attributes and deletes it, like UpdateUserIT does.
+ */
+public class UpdateUserScenario implements Scenario {
+
+    @Override
+    public String getName() {
+        return "updateUser";
+    }
+
+    @Override
+    public void run(OsiamConnector oConnector, AccessToken accessToken, OperationRecorder recorder) {
+        String userName = "load-" + UUID.randomUUID();
+        MultiValuedAttribute email = new MultiValuedAttribute.Builder()
+                .setValue(userName + "@example.com").setType("work").build();
+        User newUser = new User.Builder(userName).setNickName("irgendwas").setDisplayName("irgendwas")
+                .setEmails(Collections.singletonList(email)).build();
+
+        recorder.begin("createUser");
+        User createdUser = oConnector.createUser(newUser, accessToken);
+        recorder.end();
+
+        UpdateUser updateUser = new UpdateUser.Builder()
+                .updateNickName("NickName")
+                .updateDisplayName("DisplayName")
+                .build();
+
+        recorder.begin("updateUser");
+        oConnector.updateUser(createdUser.getId(), updateUser, accessToken);
+        recorder.end();
+
+        recorder.begin("deleteUser");
+        oConnector.deleteUser(createdUser.getId(), accessToken);
+        recorder.end();
+    }
+}
@@ -0,0 +1,163 @@
+package org.osiam.client.membership;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPatch;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.http.TransferredBytes;
+import org.osiam.client.metrics.ConnectorMetrics;
+import org.osiam.client.metrics.NoOpConnectorMetrics;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.update.UpdateGroup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Adds members to and removes members from a group with PATCH requests that contain nothing but the changed members.
+ * Unlike {@link OsiamConnector#updateGroup(String, UpdateGroup, AccessToken)}, the response, which echoes the complete
+ * group with all its members, is skipped without being parsed or bound, so that the connection goes back to the pool
+ * at the cost of only reading the bytes. Large changes are split into requests of at most the configured batch size.
+ */
+public class GroupMembership {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final String resourceEndpoint;
+    private final HttpClient httpClient;
+    private final int batchSize;
+    private final ConnectorMetrics metrics;
+
+    private GroupMembership(Builder builder) {
+        resourceEndpoint = builder.resourceEndpoint;
+        httpClient = builder.pool.newHttpClient();
+        batchSize = builder.batchSize;
+        metrics = builder.metrics;
+    }
+
+    public void addMembers(String groupId, Collection<String> memberIds, AccessToken accessToken) {
+        patch(groupId, memberIds, false, accessToken);
+    }
+
+    public void removeMembers(String groupId, Collection<String> memberIds, AccessToken accessToken) {
+        patch(groupId, memberIds, true, accessToken);
+    }
+
+    private void patch(String groupId, Collection<String> memberIds, boolean delete, AccessToken accessToken) {
+        List<String> batch = new ArrayList<>(Math.min(batchSize, memberIds.size()));
+        for (String memberId : memberIds) {
+            batch.add(memberId);
+            if (batch.size() == batchSize) {
+                send(groupId, batch, delete, accessToken);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(groupId, batch, delete, accessToken);
+        }
+    }
+
+    private void send(String groupId, List<String> memberIds, boolean delete, AccessToken accessToken) {
+        HttpPatch httpPatch = new HttpPatch(resourceEndpoint + "/Groups/" + groupId);
+        httpPatch.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        HttpContext context = new BasicHttpContext();
+        try {
+            httpPatch.setEntity(new ByteArrayEntity(body(memberIds, delete), ContentType.APPLICATION_JSON));
+            HttpResponse response = httpClient.execute(httpPatch, context);
+            // reads the echoed group to the end, so the connection can be reused
+            EntityUtils.consume(response.getEntity());
+            int status = response.getStatusLine().getStatusCode();
+            if (status / 100 != 2) {
+                throw new IllegalStateException("Changing the members of group " + groupId + " failed with "
+                        + response.getStatusLine());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not change the members of group " + groupId, e);
+        } finally {
+            httpPatch.releaseConnection();
+            String operation = delete ? "removeMembers" : "addMembers";
+            metrics.bytesSent(operation, TransferredBytes.of(context).getSent());
+            metrics.bytesReceived(operation, TransferredBytes.of(context).getReceived());
+        }
+    }
+
+    private static byte[] body(List<String> memberIds, boolean delete) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + memberIds.size() * 64);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("schemas");
+            json.writeString("urn:scim:schemas:core:1.0");
+            json.writeEndArray();
+            json.writeArrayFieldStart("members");
+            for (String memberId : memberIds) {
+                json.writeStartObject();
+                json.writeStringField("value", memberId);
+                if (delete) {
+                    json.writeStringField("operation", "delete");
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    public static class Builder {
+
+        private final String resourceEndpoint;
+        private SharedHttpConnectionPool pool = SharedHttpConnectionPool.getDefault();
+        private int batchSize = 1000;
+        private ConnectorMetrics metrics = NoOpConnectorMetrics.INSTANCE;
+
+        /**
+         * @param resourceEndpoint the address of the resource server, like the one the connector is built with
+         */
+        public Builder(String resourceEndpoint) {
+            this.resourceEndpoint = resourceEndpoint;
+        }
+
+        /**
+         * @param batchSize the maximum number of members changed by one request; default 1000
+         */
+        public Builder setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("A request must change at least one member");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param pool the connections for the requests; default the JVM wide pool
+         */
+        public Builder setConnectionPool(SharedHttpConnectionPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * @param metrics receives the bytes sent and received per request; default {@link NoOpConnectorMetrics}
+         */
+        public Builder setMetrics(ConnectorMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public GroupMembership build() {
+            return new GroupMembership(this);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.osiam.client.membership;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.database.DatabaseSeeder;
+import org.osiam.client.database.DatasetGenerator;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+import org.osiam.client.server.EmbeddedOsiamRule;
+import org.osiam.resources.scim.User;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * Adds and removes members of a group with 200,000 members and of a group with a handful, and fails if the change of
+ * the large group is more than scale.maxSlowdown times slower. After a warm-up round that is not measured, the groups
+ * take turns for several rounds and the medians are compared, so that neither JIT compilation nor a single slow
+ * round decides the result. The name does not match the failsafe includes on
+ * purpose, it only runs with <code>mvn verify -Pscale</code>. Supported system properties:
+ * <ul>
+ * <li>scale.groupSize: the members of the large group, default 200000</li>
+ * <li>scale.changedMembers: the members added and removed, default 100</li>
+ * <li>scale.rounds: the measured rounds per group, default 5</li>
+ * <li>scale.maxSlowdown: default 5</li>
+ * </ul>
+ */
+public class LargeGroupScale {
+
+    @ClassRule
+    public static final EmbeddedOsiamRule EMBEDDED_OSIAM = new EmbeddedOsiamRule();
+
+    private static final String SMALL_GROUP_ID = "69e1a5dc-89be-4343-976c-b5541af249f4";
+    private static final int GROUP_SIZE = Integer.getInteger("scale.groupSize", 200000);
+    private static final int CHANGED_MEMBERS = Integer.getInteger("scale.changedMembers", 100);
+    private static final int ROUNDS = Integer.getInteger("scale.rounds", 5);
+    private static final double MAX_SLOWDOWN = Double.parseDouble(System.getProperty("scale.maxSlowdown", "5"));
+
+    private static ClassPathXmlApplicationContext context;
+    private static OsiamConnector oConnector;
+    private static AccessToken accessToken;
+    private static List<String> newMembers;
+
+    @BeforeClass
+    public static void generateLargeGroup() throws Exception {
+        DatabaseSeeder.seed();
+        context = new ClassPathXmlApplicationContext("context.xml");
+        // the first generated group contains all generated users
+        new DatasetGenerator.Builder().setUsers(GROUP_SIZE).setGroups(1).build().generate(dataSource());
+
+        oConnector = new OsiamConnector.Builder().
+                setAuthServiceEndpoint(TestEnvironment.AUTH_ENDPOINT_ADDRESS).
+                setResourceEndpoint(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).
+                setClientId("example-client").
+                setClientSecret("secret").
+                setGrantType(GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS).
+                setUserName("marissa").
+                setPassword("koala").
+                setScope(Scope.ALL).build();
+        accessToken = oConnector.retrieveAccessToken();
+
+        newMembers = new ArrayList<>();
+        for (int i = 0; i < CHANGED_MEMBERS; i++) {
+            newMembers.add(oConnector.createUser(new User.Builder("scale-member-" + i).build(), accessToken).getId());
+        }
+    }
+
+    @AfterClass
+    public static void closeContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    public void changing_members_does_not_depend_on_the_group_size() throws Exception {
+        GroupMembership membership = new GroupMembership.Builder(TestEnvironment.RESOURCE_ENDPOINT_ADDRESS).build();
+        String largeGroupId = DatasetGenerator.groupId(0);
+        int smallGroupSize = countMembers(SMALL_GROUP_ID);
+
+        time(membership, SMALL_GROUP_ID);
+        time(membership, largeGroupId);
+        long[] smallTimes = new long[ROUNDS];
+        long[] largeTimes = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            // alternate which group goes first, so that neither always runs on a warmer server
+            if (round % 2 == 0) {
+                smallTimes[round] = time(membership, SMALL_GROUP_ID);
+                largeTimes[round] = time(membership, largeGroupId);
+            } else {
+                largeTimes[round] = time(membership, largeGroupId);
+                smallTimes[round] = time(membership, SMALL_GROUP_ID);
+            }
+        }
+        long small = median(smallTimes);
+        long large = median(largeTimes);
+
+        System.out.printf("%nChanging %d members, median of %d rounds: %d ms for a group of %d, %d ms for a group "
+                + "of %d%n", CHANGED_MEMBERS, ROUNDS, TimeUnit.NANOSECONDS.toMillis(small), smallGroupSize,
+                TimeUnit.NANOSECONDS.toMillis(large), GROUP_SIZE);
+        assertEquals(GROUP_SIZE, countMembers(largeGroupId));
+        assertEquals(smallGroupSize, countMembers(SMALL_GROUP_ID));
+        assertTrue("Changing the members of the large group took " + (double) large / small
+                + " times as long, at most " + MAX_SLOWDOWN + " is allowed", large <= small * MAX_SLOWDOWN);
+    }
+
+    /**
+     * @return the nanoseconds it took to add and then remove the new members
+     */
+    private long time(GroupMembership membership, String groupId) throws SQLException {
+        int before = countMembers(groupId);
+        long start = System.nanoTime();
+        membership.addMembers(groupId, newMembers, accessToken);
+        long added = System.nanoTime();
+        assertEquals(before + CHANGED_MEMBERS, countMembers(groupId));
+        long removing = System.nanoTime();
+        membership.removeMembers(groupId, newMembers, accessToken);
+        return added - start + System.nanoTime() - removing;
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static int countMembers(String groupId) throws SQLException {
+        try (Connection connection = dataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM scim_group_scim_id m "
+                     + "JOIN scim_id g ON g.internal_id = m.scim_group_internal_id WHERE g.id = ?")) {
+            statement.setString(1, groupId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static DataSource dataSource() {
+        return (DataSource) context.getBean("dataSource");
+    }
+}
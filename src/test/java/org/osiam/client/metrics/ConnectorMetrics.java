@@ -0,0 +1,40 @@
+package org.osiam.client.metrics;
+
+/**
+ * Receives measurements of the calls made through an {@link InstrumentedOsiamConnector}. Operations are named after
+ * the methods of the connector, e.g. <code>getUser</code> or <code>searchUsers</code>. Implementations must be thread
+ * safe and fast, they are called on the thread of the caller.
+ * <p/>
+ * Byte counts come from the helpers that send their own requests with a client of the
+ * {@link org.osiam.client.http.SharedHttpConnectionPool}, e.g. StreamingSearch, GroupMembership and
+ * ConditionalResourceCache, which count them on the wire with {@link org.osiam.client.http.TransferredBytes}. Calls
+ * made inside the OsiamConnector cannot report bytes, its HTTP client is not accessible.
+ */
+public interface ConnectorMetrics {
+
+    /**
+     * @param status the HTTP status of the response as far as the caller can tell, or 0 if no response was received
+     *               or its status is unknown
+     */
+    void operationCompleted(String operation, long durationNanos, int status);
+
+    /**
+     * @param bytes the bytes of the request body written to the connection
+     */
+    void bytesSent(String operation, long bytes);
+
+    /**
+     * @param bytes the bytes of the response body read from the connection, compressed if the server compressed it
+     */
+    void bytesReceived(String operation, long bytes);
+
+    /**
+     * A new access token was retrieved from the auth server.
+     */
+    void accessTokenRetrieved();
+
+    /**
+     * An attempt of the operation failed and is retried.
+     */
+    void retried(String operation);
+}
@@ -0,0 +1,159 @@
+package org.osiam.client.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Keeps the measurements in memory: a latency histogram, status code counts, byte counts and retries per operation,
+ * and the number of retrieved access tokens. {@link #print(PrintStream)} writes a report with one line per operation.
+ */
+public class HistogramConnectorMetrics implements ConnectorMetrics {
+
+    static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toMicros(1);
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final AtomicLong accessTokens = new AtomicLong();
+
+    @Override
+    public void operationCompleted(String operation, long durationNanos, int status) {
+        OperationMetrics metrics = metrics(operation);
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), HIGHEST_TRACKABLE_LATENCY);
+        synchronized (metrics) {
+            metrics.latencies.recordValue(micros);
+            Long count = metrics.statusCodes.get(status);
+            metrics.statusCodes.put(status, count == null ? 1L : count + 1);
+        }
+    }
+
+    @Override
+    public void bytesSent(String operation, long bytes) {
+        metrics(operation).bytesSent.addAndGet(bytes);
+    }
+
+    @Override
+    public void bytesReceived(String operation, long bytes) {
+        metrics(operation).bytesReceived.addAndGet(bytes);
+    }
+
+    @Override
+    public void accessTokenRetrieved() {
+        accessTokens.incrementAndGet();
+    }
+
+    @Override
+    public void retried(String operation) {
+        metrics(operation).retries.incrementAndGet();
+    }
+
+    public long getAccessTokensRetrieved() {
+        return accessTokens.get();
+    }
+
+    /**
+     * @return the number of completed calls of the operation
+     */
+    public long getCount(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics == null) {
+            return 0;
+        }
+        synchronized (metrics) {
+            return metrics.latencies.getTotalCount();
+        }
+    }
+
+    /**
+     * @return the number of calls of the operation that ended with the given status
+     */
+    public long getStatusCount(String operation, int status) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics == null) {
+            return 0;
+        }
+        synchronized (metrics) {
+            Long count = metrics.statusCodes.get(status);
+            return count == null ? 0 : count;
+        }
+    }
+
+    /**
+     * @return the latency of the given percentile in microseconds
+     */
+    public long getPercentile(String operation, double percentile) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics == null) {
+            return 0;
+        }
+        synchronized (metrics) {
+            return metrics.latencies.getValueAtPercentile(percentile);
+        }
+    }
+
+    public long getRetries(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics == null ? 0 : metrics.retries.get();
+    }
+
+    public long getBytesSent(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics == null ? 0 : metrics.bytesSent.get();
+    }
+
+    public long getBytesReceived(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics == null ? 0 : metrics.bytesReceived.get();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-20s %8s %10s %10s %10s %10s %12s %12s %8s  %s%n", "operation", "count", "total ms",
+                "p50 ms", "p99 ms", "max ms", "bytes sent", "bytes recv", "retries", "status codes");
+        for (Map.Entry<String, OperationMetrics> entry : new TreeMap<>(operations).entrySet()) {
+            OperationMetrics metrics = entry.getValue();
+            synchronized (metrics) {
+                Histogram latencies = metrics.latencies;
+                out.printf("%-20s %8d %10.1f %10.2f %10.2f %10.2f %12d %12d %8d  %s%n",
+                        entry.getKey(),
+                        latencies.getTotalCount(),
+                        latencies.getMean() * latencies.getTotalCount() / 1000.0,
+                        latencies.getValueAtPercentile(50.0) / 1000.0,
+                        latencies.getValueAtPercentile(99.0) / 1000.0,
+                        latencies.getMaxValue() / 1000.0,
+                        metrics.bytesSent.get(),
+                        metrics.bytesReceived.get(),
+                        metrics.retries.get(),
+                        metrics.statusCodes);
+            }
+        }
+        out.printf("%d access tokens retrieved%n", accessTokens.get());
+    }
+
+    private OperationMetrics metrics(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics == null) {
+            OperationMetrics created = new OperationMetrics();
+            metrics = operations.putIfAbsent(operation, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    private static class OperationMetrics {
+
+        final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+        final SortedMap<Integer, Long> statusCodes = new TreeMap<>();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+    }
+}
@@ -0,0 +1,281 @@
+package org.osiam.client.metrics;
+
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.http.ErrorStatus;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Offers the calls of an {@link OsiamConnector} and reports the latency and the outcome of every call to a
+ * {@link ConnectorMetrics}. Pass it to the helpers of this project as {@link OsiamOperations} to have their calls
+ * measured as well.
+ * <p/>
+ * The connector does not expose its responses, so statuses are inferred: a call that returned is reported with the
+ * success status of its operation, 201 for creates, 204 for deletes and 200 otherwise. The status of a failed call is
+ * recovered from its exception by {@link ErrorStatus}, 0 if the call failed in I/O or the status is unknown.
+ */
+public class InstrumentedOsiamConnector implements OsiamOperations {
+
+    private final OsiamConnector connector;
+    private final ConnectorMetrics metrics;
+
+    private InstrumentedOsiamConnector(Builder builder) {
+        connector = builder.connector;
+        metrics = builder.metrics;
+    }
+
+    @Override
+    public AccessToken retrieveAccessToken() {
+        AccessToken accessToken = call("retrieveAccessToken", new Call<AccessToken>() {
+            @Override
+            public AccessToken call() {
+                return connector.retrieveAccessToken();
+            }
+        });
+        metrics.accessTokenRetrieved();
+        return accessToken;
+    }
+
+    public AccessToken retrieveAccessToken(final String authCode) {
+        AccessToken accessToken = call("retrieveAccessToken", new Call<AccessToken>() {
+            @Override
+            public AccessToken call() {
+                return connector.retrieveAccessToken(authCode);
+            }
+        });
+        metrics.accessTokenRetrieved();
+        return accessToken;
+    }
+
+    public AccessToken retrieveAccessToken(final HttpResponse authCodeResponse) {
+        AccessToken accessToken = call("retrieveAccessToken", new Call<AccessToken>() {
+            @Override
+            public AccessToken call() {
+                return connector.retrieveAccessToken(authCodeResponse);
+            }
+        });
+        metrics.accessTokenRetrieved();
+        return accessToken;
+    }
+
+    @Override
+    public User getUser(final String id, final AccessToken accessToken) {
+        return call("getUser", new Call<User>() {
+            @Override
+            public User call() {
+                return connector.getUser(id, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public Group getGroup(final String id, final AccessToken accessToken) {
+        return call("getGroup", new Call<Group>() {
+            @Override
+            public Group call() {
+                return connector.getGroup(id, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public User getMe(final AccessToken accessToken) {
+        return call("getMe", new Call<User>() {
+            @Override
+            public User call() {
+                return connector.getMe(accessToken);
+            }
+        });
+    }
+
+    @Override
+    public List<User> getAllUsers(final AccessToken accessToken) {
+        return call("getAllUsers", new Call<List<User>>() {
+            @Override
+            public List<User> call() {
+                return connector.getAllUsers(accessToken);
+            }
+        });
+    }
+
+    @Override
+    public List<Group> getAllGroups(final AccessToken accessToken) {
+        return call("getAllGroups", new Call<List<Group>>() {
+            @Override
+            public List<Group> call() {
+                return connector.getAllGroups(accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<User> searchUsers(final Query query, final AccessToken accessToken) {
+        return call("searchUsers", new Call<QueryResult<User>>() {
+            @Override
+            public QueryResult<User> call() {
+                return connector.searchUsers(query, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<User> searchUsers(final String queryString, final AccessToken accessToken) {
+        return call("searchUsers", new Call<QueryResult<User>>() {
+            @Override
+            public QueryResult<User> call() {
+                return connector.searchUsers(queryString, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<Group> searchGroups(final Query query, final AccessToken accessToken) {
+        return call("searchGroups", new Call<QueryResult<Group>>() {
+            @Override
+            public QueryResult<Group> call() {
+                return connector.searchGroups(query, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<Group> searchGroups(final String queryString, final AccessToken accessToken) {
+        return call("searchGroups", new Call<QueryResult<Group>>() {
+            @Override
+            public QueryResult<Group> call() {
+                return connector.searchGroups(queryString, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public User createUser(final User user, final AccessToken accessToken) {
+        return call("createUser", new Call<User>() {
+            @Override
+            public User call() {
+                return connector.createUser(user, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public Group createGroup(final Group group, final AccessToken accessToken) {
+        return call("createGroup", new Call<Group>() {
+            @Override
+            public Group call() {
+                return connector.createGroup(group, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public User updateUser(final String id, final UpdateUser updateUser, final AccessToken accessToken) {
+        return call("updateUser", new Call<User>() {
+            @Override
+            public User call() {
+                return connector.updateUser(id, updateUser, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public Group updateGroup(final String id, final UpdateGroup updateGroup, final AccessToken accessToken) {
+        return call("updateGroup", new Call<Group>() {
+            @Override
+            public Group call() {
+                return connector.updateGroup(id, updateGroup, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public void deleteUser(final String id, final AccessToken accessToken) {
+        call("deleteUser", new Call<Void>() {
+            @Override
+            public Void call() {
+                connector.deleteUser(id, accessToken);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void deleteGroup(final String id, final AccessToken accessToken) {
+        call("deleteGroup", new Call<Void>() {
+            @Override
+            public Void call() {
+                connector.deleteGroup(id, accessToken);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @return the wrapped connector, e.g. to wrap it once more; its calls are not measured
+     */
+    public OsiamConnector getConnector() {
+        return connector;
+    }
+
+    public ConnectorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private <T> T call(String operation, Call<T> call) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.call();
+        } catch (RuntimeException e) {
+            metrics.operationCompleted(operation, System.nanoTime() - start, ErrorStatus.of(e));
+            throw e;
+        }
+        metrics.operationCompleted(operation, System.nanoTime() - start, successStatusOf(operation));
+        return result;
+    }
+
+    private static int successStatusOf(String operation) {
+        if (operation.startsWith("create")) {
+            return 201;
+        }
+        if (operation.startsWith("delete")) {
+            return 204;
+        }
+        return 200;
+    }
+
+    private interface Call<T> {
+        T call();
+    }
+
+    public static class Builder {
+
+        private final OsiamConnector connector;
+        private ConnectorMetrics metrics = NoOpConnectorMetrics.INSTANCE;
+
+        public Builder(OsiamConnector connector) {
+            this.connector = connector;
+        }
+
+        /**
+         * @param metrics receives the measurements; default {@link NoOpConnectorMetrics}
+         */
+        public Builder setMetrics(ConnectorMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public InstrumentedOsiamConnector build() {
+            return new InstrumentedOsiamConnector(this);
+        }
+    }
+}
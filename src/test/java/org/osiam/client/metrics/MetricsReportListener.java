@@ -0,0 +1,31 @@
+package org.osiam.client.metrics;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Prints the connector metrics of all ITs when the test run of a failsafe fork finished, to stdout and to
+ * <code>target/[fork-N.]connector-metrics.txt</code>. The ITs report to {@link #METRICS} through the connector of
+ * <code>AbstractIntegrationTestBase</code>.
+ */
+public class MetricsReportListener extends RunListener {
+
+    public static final HistogramConnectorMetrics METRICS = new HistogramConnectorMetrics();
+
+    @Override
+    public void testRunFinished(Result result) throws FileNotFoundException {
+        System.out.println();
+        System.out.println("Connector calls of the integration tests:");
+        METRICS.print(System.out);
+
+        int fork = Integer.getInteger("osiam.test.fork", 0);
+        File report = new File("target", (fork > 0 ? "fork-" + fork + "." : "") + "connector-metrics.txt");
+        try (PrintStream out = new PrintStream(report)) {
+            METRICS.print(out);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.osiam.client.metrics;
+
+/**
+ * Discards all measurements, the default of the {@link InstrumentedOsiamConnector}.
+ */
+public final class NoOpConnectorMetrics implements ConnectorMetrics {
+
+    public static final NoOpConnectorMetrics INSTANCE = new NoOpConnectorMetrics();
+
+    private NoOpConnectorMetrics() {
+    }
+
+    @Override
+    public void operationCompleted(String operation, long durationNanos, int status) {
+    }
+
+    @Override
+    public void bytesSent(String operation, long bytes) {
+    }
+
+    @Override
+    public void bytesReceived(String operation, long bytes) {
+    }
+
+    @Override
+    public void accessTokenRetrieved() {
+    }
+
+    @Override
+    public void retried(String operation) {
+    }
+}
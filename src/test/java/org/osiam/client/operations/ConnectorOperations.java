@@ -0,0 +1,108 @@
+package org.osiam.client.operations;
+
+import java.util.List;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Offers the calls of a plain {@link OsiamConnector} as {@link OsiamOperations}, without adding anything.
+ */
+public final class ConnectorOperations implements OsiamOperations {
+
+    private final OsiamConnector connector;
+
+    private ConnectorOperations(OsiamConnector connector) {
+        this.connector = connector;
+    }
+
+    public static ConnectorOperations of(OsiamConnector connector) {
+        return new ConnectorOperations(connector);
+    }
+
+    @Override
+    public AccessToken retrieveAccessToken() {
+        return connector.retrieveAccessToken();
+    }
+
+    @Override
+    public User getUser(String id, AccessToken accessToken) {
+        return connector.getUser(id, accessToken);
+    }
+
+    @Override
+    public Group getGroup(String id, AccessToken accessToken) {
+        return connector.getGroup(id, accessToken);
+    }
+
+    @Override
+    public User getMe(AccessToken accessToken) {
+        return connector.getMe(accessToken);
+    }
+
+    @Override
+    public List<User> getAllUsers(AccessToken accessToken) {
+        return connector.getAllUsers(accessToken);
+    }
+
+    @Override
+    public List<Group> getAllGroups(AccessToken accessToken) {
+        return connector.getAllGroups(accessToken);
+    }
+
+    @Override
+    public QueryResult<User> searchUsers(Query query, AccessToken accessToken) {
+        return connector.searchUsers(query, accessToken);
+    }
+
+    @Override
+    public QueryResult<User> searchUsers(String queryString, AccessToken accessToken) {
+        return connector.searchUsers(queryString, accessToken);
+    }
+
+    @Override
+    public QueryResult<Group> searchGroups(Query query, AccessToken accessToken) {
+        return connector.searchGroups(query, accessToken);
+    }
+
+    @Override
+    public QueryResult<Group> searchGroups(String queryString, AccessToken accessToken) {
+        return connector.searchGroups(queryString, accessToken);
+    }
+
+    @Override
+    public User createUser(User user, AccessToken accessToken) {
+        return connector.createUser(user, accessToken);
+    }
+
+    @Override
+    public Group createGroup(Group group, AccessToken accessToken) {
+        return connector.createGroup(group, accessToken);
+    }
+
+    @Override
+    public User updateUser(String id, UpdateUser updateUser, AccessToken accessToken) {
+        return connector.updateUser(id, updateUser, accessToken);
+    }
+
+    @Override
+    public Group updateGroup(String id, UpdateGroup updateGroup, AccessToken accessToken) {
+        return connector.updateGroup(id, updateGroup, accessToken);
+    }
+
+    @Override
+    public void deleteUser(String id, AccessToken accessToken) {
+        connector.deleteUser(id, accessToken);
+    }
+
+    @Override
+    public void deleteGroup(String id, AccessToken accessToken) {
+        connector.deleteGroup(id, accessToken);
+    }
+}
@@ -0,0 +1,53 @@
+package org.osiam.client.operations;
+
+import java.util.List;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * The calls of an {@link OsiamConnector}, which implements no interface of its own. The helpers of this project
+ * take their connector as <code>OsiamOperations</code>, so that they can be given a plain connector through
+ * {@link ConnectorOperations} as well as a wrapper that measures or retries the calls, e.g.
+ * <code>InstrumentedOsiamConnector</code>.
+ */
+public interface OsiamOperations {
+
+    AccessToken retrieveAccessToken();
+
+    User getUser(String id, AccessToken accessToken);
+
+    Group getGroup(String id, AccessToken accessToken);
+
+    User getMe(AccessToken accessToken);
+
+    List<User> getAllUsers(AccessToken accessToken);
+
+    List<Group> getAllGroups(AccessToken accessToken);
+
+    QueryResult<User> searchUsers(Query query, AccessToken accessToken);
+
+    QueryResult<User> searchUsers(String queryString, AccessToken accessToken);
+
+    QueryResult<Group> searchGroups(Query query, AccessToken accessToken);
+
+    QueryResult<Group> searchGroups(String queryString, AccessToken accessToken);
+
+    User createUser(User user, AccessToken accessToken);
+
+    Group createGroup(Group group, AccessToken accessToken);
+
+    User updateUser(String id, UpdateUser updateUser, AccessToken accessToken);
+
+    Group updateGroup(String id, UpdateGroup updateGroup, AccessToken accessToken);
+
+    void deleteUser(String id, AccessToken accessToken);
+
+    void deleteGroup(String id, AccessToken accessToken);
+}
@@ -0,0 +1,308 @@
+package org.osiam.client.paging;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.codec.binary.Base64;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Pages through a sorted search by the value of the sort attribute instead of by <code>startIndex</code>. Every page
+ * after the first is searched with the original filter plus <code>sortBy ge "last value"</code>, so the database
+ * seeks to the position of the last page instead of counting all preceding rows, and the cost of a page no longer
+ * grows with its depth.
+ * <p/>
+ * The position is handed out as an opaque continuation token, made of the sort value and the id of the last resource
+ * and its position among the resources sharing that sort value. Ties therefore still cost an offset, but only within
+ * the tie; for a unique attribute like userName the offset is always 1. Since the id of the last resource is checked
+ * on the next page, resources created or deleted between two pages neither shift nor repeat the following ones.
+ * <p/>
+ * The sort attribute must be a string attribute, resources without a value are not returned. The server combines
+ * filters without precedence, so filters with <code>or</code> are not supported.
+ */
+public class KeysetPaging<T> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final PageFetcher<T> fetcher;
+    private final String filter;
+    private final String sortBy;
+    private final boolean descending;
+    private final int count;
+
+    private KeysetPaging(Builder<T> builder) {
+        fetcher = builder.fetcher;
+        filter = builder.filter;
+        sortBy = builder.sortBy;
+        descending = builder.descending;
+        count = builder.count;
+    }
+
+    public static Builder<User> users(OsiamOperations connector, AccessToken accessToken) {
+        return new Builder<>(PageFetcher.users(connector, accessToken));
+    }
+
+    public static Builder<Group> groups(OsiamOperations connector, AccessToken accessToken) {
+        return new Builder<>(PageFetcher.groups(connector, accessToken));
+    }
+
+    public Page<T> first() {
+        List<T> resources = search(filter, 1, count).getResources();
+        if (resources.isEmpty()) {
+            return new Page<>(resources, null);
+        }
+        T last = resources.get(resources.size() - 1);
+        String value = sortValue(last);
+        int position = 0;
+        for (T resource : resources) {
+            if (value.equals(sortValue(resource))) {
+                position++;
+            }
+        }
+        return page(resources, value, position);
+    }
+
+    /**
+     * @param continuationToken the token of the previous page
+     * @return the page following the previous one
+     */
+    public Page<T> next(String continuationToken) {
+        Cursor cursor = decode(continuationToken);
+        // the last resource of the previous page is searched again, to detect changes between the pages
+        List<T> resources = new ArrayList<>(
+                search(keysetFilter(cursor.value), cursor.position, count + 1).getResources());
+
+        int skipped = 0;
+        for (int i = 0; i < resources.size(); i++) {
+            if (cursor.id.equals(id(resources.get(i)))) {
+                skipped = i + 1;
+                break;
+            }
+        }
+        int firstPosition = cursor.position + skipped;
+        List<T> page = resources.subList(skipped, Math.min(resources.size(), skipped + count));
+        if (page.isEmpty()) {
+            return new Page<>(Collections.<T>emptyList(), null);
+        }
+
+        String value = sortValue(page.get(page.size() - 1));
+        int position;
+        if (value.equals(cursor.value)) {
+            position = firstPosition + page.size() - 1;
+        } else {
+            position = 0;
+            for (T resource : page) {
+                if (value.equals(sortValue(resource))) {
+                    position++;
+                }
+            }
+        }
+        return page(new ArrayList<>(page), value, position);
+    }
+
+    /**
+     * @return a continuation token that starts right after the given resource, e.g. to resume from a known user
+     */
+    public String continueAfter(T resource) {
+        String value = sortValue(resource);
+        String id = id(resource);
+        String tieFilter = combine(filter, sortBy + " eq \"" + value + "\"");
+        for (int startIndex = 1; ; startIndex += count) {
+            List<T> ties = search(tieFilter, startIndex, count).getResources();
+            for (int i = 0; i < ties.size(); i++) {
+                if (id.equals(id(ties.get(i)))) {
+                    return encode(new Cursor(value, id, startIndex + i));
+                }
+            }
+            if (ties.size() < count) {
+                throw new IllegalArgumentException("The resource " + id + " does not match the search");
+            }
+        }
+    }
+
+    private Page<T> page(List<T> resources, String value, int position) {
+        if (resources.size() < count) {
+            return new Page<>(resources, null);
+        }
+        return new Page<>(resources, encode(new Cursor(value, id(resources.get(resources.size() - 1)), position)));
+    }
+
+    private QueryResult<T> search(String searchFilter, int startIndex, int pageSize) {
+        StringBuilder queryString = new StringBuilder();
+        if (searchFilter != null) {
+            queryString.append("filter=").append(urlEncode(searchFilter)).append('&');
+        }
+        queryString.append("sortBy=").append(urlEncode(sortBy))
+                .append("&sortOrder=").append(descending ? "descending" : "ascending")
+                .append("&startIndex=").append(startIndex)
+                .append("&count=").append(pageSize);
+        return fetcher.fetch(queryString.toString());
+    }
+
+    private String keysetFilter(String value) {
+        return combine(filter, sortBy + (descending ? " le \"" : " ge \"") + value + "\"");
+    }
+
+    private static String combine(String filter, String condition) {
+        return filter == null ? condition : filter + " and " + condition;
+    }
+
+    private String sortValue(T resource) {
+        JsonNode node = MAPPER.valueToTree(resource);
+        for (String name : sortBy.split("\\.")) {
+            node = node == null ? null : node.get(name);
+        }
+        if (node == null || !node.isTextual()) {
+            throw new IllegalStateException("The sort attribute " + sortBy + " of " + id(resource)
+                    + " is missing or not a string");
+        }
+        return node.textValue();
+    }
+
+    private static String id(Object resource) {
+        return MAPPER.valueToTree(resource).path("id").textValue();
+    }
+
+    private String encode(Cursor cursor) {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("sortBy", sortBy);
+        json.put("descending", descending);
+        json.put("value", cursor.value);
+        json.put("id", cursor.id);
+        json.put("position", cursor.position);
+        try {
+            return Base64.encodeBase64URLSafeString(MAPPER.writeValueAsBytes(json));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write the continuation token", e);
+        }
+    }
+
+    private Cursor decode(String continuationToken) {
+        JsonNode json;
+        try {
+            json = MAPPER.readTree(Base64.decodeBase64(continuationToken));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+        if (json == null || !sortBy.equals(json.path("sortBy").textValue())
+                || descending != json.path("descending").booleanValue()) {
+            throw new IllegalArgumentException("The continuation token belongs to another search");
+        }
+        return new Cursor(json.path("value").textValue(), json.path("id").textValue(),
+                json.path("position").intValue());
+    }
+
+    private static String urlEncode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Cursor {
+
+        final String value;
+        final String id;
+        final int position;
+
+        Cursor(String value, String id, int position) {
+            this.value = value;
+            this.id = id;
+            this.position = position;
+        }
+    }
+
+    /**
+     * One page of resources and the token of the following page.
+     */
+    public static class Page<T> {
+
+        private final List<T> resources;
+        private final String continuationToken;
+
+        Page(List<T> resources, String continuationToken) {
+            this.resources = resources;
+            this.continuationToken = continuationToken;
+        }
+
+        public List<T> getResources() {
+            return resources;
+        }
+
+        /**
+         * @return the token for {@link KeysetPaging#next(String)}, or null if this is the last page
+         */
+        public String getContinuationToken() {
+            return continuationToken;
+        }
+
+        public boolean hasNext() {
+            return continuationToken != null;
+        }
+    }
+
+    public static class Builder<T> {
+
+        private final PageFetcher<T> fetcher;
+        private String filter;
+        private String sortBy = "userName";
+        private boolean descending;
+        private int count = 100;
+
+        public Builder(PageFetcher<T> fetcher) {
+            this.fetcher = fetcher;
+        }
+
+        /**
+         * @param filter the unencoded SCIM filter, e.g. <code>active eq "true"</code>; default none
+         */
+        public Builder<T> setFilter(String filter) {
+            if (filter != null && filter.toLowerCase().contains(" or ")) {
+                throw new IllegalArgumentException("Filters with 'or' cannot be combined with the page condition");
+            }
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * @param sortBy the string attribute to sort and page by, e.g. <code>name.familyName</code>; default userName
+         */
+        public Builder<T> setSortBy(String sortBy) {
+            this.sortBy = sortBy;
+            return this;
+        }
+
+        public Builder<T> setDescending(boolean descending) {
+            this.descending = descending;
+            return this;
+        }
+
+        /**
+         * @param count the resources per page; default 100
+         */
+        public Builder<T> setCount(int count) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("A page needs at least one resource");
+            }
+            this.count = count;
+            return this;
+        }
+
+        public KeysetPaging<T> build() {
+            return new KeysetPaging<>(this);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.osiam.client.paging;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Fetches one page of a search, i.e. binds a search method of the {@link OsiamOperations} to an access token.
+ */
+public abstract class PageFetcher<T> {
+
+    public abstract QueryResult<T> fetch(Query query);
+
+    /**
+     * @param queryString an already encoded query string, like <code>filter=...&count=100</code>
+     */
+    public abstract QueryResult<T> fetch(String queryString);
+
+    public static PageFetcher<User> users(final OsiamOperations connector, final AccessToken accessToken) {
+        return new PageFetcher<User>() {
+            @Override
+            public QueryResult<User> fetch(Query query) {
+                return connector.searchUsers(query, accessToken);
+            }
+
+            @Override
+            public QueryResult<User> fetch(String queryString) {
+                return connector.searchUsers(queryString, accessToken);
+            }
+        };
+    }
+
+    public static PageFetcher<Group> groups(final OsiamOperations connector, final AccessToken accessToken) {
+        return new PageFetcher<Group>() {
+            @Override
+            public QueryResult<Group> fetch(Query query) {
+                return connector.searchGroups(query, accessToken);
+            }
+
+            @Override
+            public QueryResult<Group> fetch(String queryString) {
+                return connector.searchGroups(queryString, accessToken);
+            }
+        };
+    }
+}
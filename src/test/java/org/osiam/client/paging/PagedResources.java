@@ -0,0 +1,228 @@
+package org.osiam.client.paging;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * All resources matching a query, fetched page by page with {@link Query#nextPage()} instead of all at once like
+ * {@link OsiamOperations#getAllUsers(AccessToken)} does. While the caller consumes one page, the following pages are
+ * fetched in the background, but at most the configured number of pages is buffered, so at most (buffered pages + 2)
+ * times the page size of the query resources are held at once, counting the page the caller consumes and the page
+ * being fetched, independent of the number of resources.
+ * <p/>
+ * Every {@link #iterator()} runs its own search. An iterator that is not consumed to the end should be closed, to
+ * stop its background fetching.
+ */
+public class PagedResources<T> implements Iterable<T> {
+
+    static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "page-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final PageFetcher<T> fetcher;
+    private final Query firstPage;
+    private final int bufferedPages;
+    private final ExecutorService executor;
+
+    private PagedResources(Builder<T> builder) {
+        fetcher = builder.fetcher;
+        firstPage = builder.firstPage;
+        bufferedPages = builder.bufferedPages;
+        executor = builder.executor == null ? DEFAULT_EXECUTOR : builder.executor;
+    }
+
+    public static Builder<User> users(OsiamOperations connector, AccessToken accessToken) {
+        return new Builder<>(PageFetcher.users(connector, accessToken), User.class);
+    }
+
+    public static Builder<Group> groups(OsiamOperations connector, AccessToken accessToken) {
+        return new Builder<>(PageFetcher.groups(connector, accessToken), Group.class);
+    }
+
+    @Override
+    public PagingIterator<T> iterator() {
+        return new PagingIterator<>(fetcher, firstPage, bufferedPages, executor);
+    }
+
+    /**
+     * Iterates over the resources of the pages the background task puts into a bounded queue. Errors of the
+     * background task are rethrown by {@link #hasNext()}.
+     */
+    public static class PagingIterator<T> implements Iterator<T>, Closeable {
+
+        private static final Page<?> END = new Page<>(Collections.emptyList(), null);
+
+        private final BlockingQueue<Page<T>> pages;
+        private final Future<?> prefetcher;
+        private Iterator<T> current = Collections.<T>emptyList().iterator();
+        private boolean done;
+
+        PagingIterator(final PageFetcher<T> fetcher, final Query firstPage, int bufferedPages,
+                       ExecutorService executor) {
+            pages = new ArrayBlockingQueue<>(bufferedPages);
+            prefetcher = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    prefetch(fetcher, firstPage);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void prefetch(PageFetcher<T> fetcher, Query firstPage) {
+            try {
+                Query query = firstPage;
+                long fetched = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    QueryResult<T> result = fetcher.fetch(query);
+                    List<T> resources = result.getResources();
+                    fetched += resources.size();
+                    if (!resources.isEmpty()) {
+                        pages.put(new Page<>(resources, null));
+                    }
+                    if (resources.isEmpty() || fetched >= result.getTotalResults()) {
+                        break;
+                    }
+                    query = query.nextPage();
+                }
+                pages.put((Page<T>) END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                pages.clear();
+                pages.offer(new Page<T>(null, e));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (done) {
+                    return false;
+                }
+                Page<T> page = takePage();
+                if (page.error != null) {
+                    done = true;
+                    throw page.error;
+                }
+                if (page == END) {
+                    done = true;
+                    return false;
+                }
+                current = page.resources.iterator();
+            }
+            return true;
+        }
+
+        private Page<T> takePage() {
+            try {
+                return pages.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for the next page", e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Stops fetching further pages.
+         */
+        @Override
+        public void close() {
+            done = true;
+            prefetcher.cancel(true);
+            pages.clear();
+        }
+    }
+
+    private static class Page<T> {
+
+        final List<T> resources;
+        final RuntimeException error;
+
+        Page(List<T> resources, RuntimeException error) {
+            this.resources = resources;
+            this.error = error;
+        }
+    }
+
+    public static class Builder<T> {
+
+        private final PageFetcher<T> fetcher;
+        private Query firstPage;
+        private int bufferedPages = 2;
+        private ExecutorService executor;
+
+        public Builder(PageFetcher<T> fetcher, Class<T> resourceType) {
+            this.fetcher = fetcher;
+            firstPage = new Query.Builder(resourceType).setStartIndex(1).setCountPerPage(100).build();
+        }
+
+        /**
+         * @param firstPage the query of the first page, its filter, sorting and count per page apply to all pages;
+         *                  default all resources, 100 per page
+         */
+        public Builder<T> setQuery(Query firstPage) {
+            this.firstPage = firstPage;
+            return this;
+        }
+
+        /**
+         * @param bufferedPages the number of pages fetched ahead of the caller, default 2
+         */
+        public Builder<T> setBufferedPages(int bufferedPages) {
+            if (bufferedPages <= 0) {
+                throw new IllegalArgumentException("At least one page must be buffered");
+            }
+            this.bufferedPages = bufferedPages;
+            return this;
+        }
+
+        /**
+         * @param executor runs the background fetching, one task per iteration; default a cached pool of daemon
+         *                 threads
+         */
+        public Builder<T> setExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public PagedResources<T> build() {
+            return new PagedResources<>(this);
+        }
+    }
+}
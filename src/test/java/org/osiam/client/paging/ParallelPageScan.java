@@ -0,0 +1,221 @@
+package org.osiam.client.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Reads all resources matching a query with concurrent page requests. The first page is fetched alone to learn the
+ * total number of results; the remaining pages are then requested with at most the configured number of requests in
+ * flight. Resources created or deleted during a scan may be missed or returned twice, like with serial paging.
+ * <p/>
+ * The pages are requested with the count per page of the query. If the server returns fewer resources per page, e.g.
+ * because it caps the page size, the scan fails with an IllegalStateException instead of silently skipping resources.
+ */
+public class ParallelPageScan<T> {
+
+    private final PageFetcher<T> fetcher;
+    private final Query firstPage;
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    private ParallelPageScan(Builder<T> builder) {
+        fetcher = builder.fetcher;
+        firstPage = builder.firstPage;
+        concurrency = builder.concurrency;
+        executor = builder.executor == null ? PagedResources.DEFAULT_EXECUTOR : builder.executor;
+    }
+
+    public static Builder<User> users(OsiamOperations connector, AccessToken accessToken) {
+        return new Builder<>(PageFetcher.users(connector, accessToken), User.class);
+    }
+
+    public static Builder<Group> groups(OsiamOperations connector, AccessToken accessToken) {
+        return new Builder<>(PageFetcher.groups(connector, accessToken), Group.class);
+    }
+
+    /**
+     * @return all resources, in the order serial paging would return them
+     */
+    public List<T> fetchAll() {
+        final List<List<T>> pages = new ArrayList<>();
+        scan(new PageHandler<T>() {
+            @Override
+            public void handle(int pageNumber, List<T> resources) {
+                while (pages.size() <= pageNumber) {
+                    pages.add(null);
+                }
+                pages.set(pageNumber, resources);
+            }
+        });
+        List<T> all = new ArrayList<>();
+        for (List<T> page : pages) {
+            if (page != null) {
+                all.addAll(page);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Hands every page to the handler as soon as it arrived, in no particular order. The handler is called on the
+     * calling thread, one page at a time, so it needs no synchronization and only the pages in flight are held in
+     * memory.
+     *
+     * @throws RuntimeException the first error of a page request, the remaining requests are cancelled
+     */
+    public void scan(PageHandler<T> handler) {
+        QueryResult<T> first = fetcher.fetch(firstPage);
+        List<T> firstResources = first.getResources();
+        handler.handle(0, firstResources);
+        if (firstResources.isEmpty() || firstResources.size() >= first.getTotalResults()) {
+            return;
+        }
+        int pageSize = firstResources.size();
+        int pageCount = (int) ((first.getTotalResults() + pageSize - 1) / pageSize);
+        long firstStartIndex = first.getStartIndex();
+
+        CompletionService<Page<T>> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Page<T>>> inFlight = new ArrayList<>();
+        Query query = firstPage;
+        int nextPage = 1;
+        try {
+            while (nextPage < pageCount && inFlight.size() < concurrency) {
+                query = query.nextPage();
+                inFlight.add(completionService.submit(
+                        new PageRequest<>(fetcher, query, nextPage, firstStartIndex + (long) nextPage * pageSize)));
+                nextPage++;
+            }
+            while (!inFlight.isEmpty()) {
+                Future<Page<T>> done = completionService.take();
+                inFlight.remove(done);
+                Page<T> page = done.get();
+                handler.handle(page.number, page.resources);
+                if (nextPage < pageCount) {
+                    query = query.nextPage();
+                    inFlight.add(completionService.submit(
+                            new PageRequest<>(fetcher, query, nextPage, firstStartIndex + (long) nextPage * pageSize)));
+                    nextPage++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a page", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<Page<T>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Receives the pages of a {@link #scan(PageHandler)}.
+     */
+    public interface PageHandler<T> {
+
+        /**
+         * @param pageNumber the position of the page in the scan, starting with 0
+         */
+        void handle(int pageNumber, List<T> resources);
+    }
+
+    private static class PageRequest<T> implements Callable<Page<T>> {
+
+        private final PageFetcher<T> fetcher;
+        private final Query query;
+        private final int number;
+        private final long expectedStartIndex;
+
+        PageRequest(PageFetcher<T> fetcher, Query query, int number, long expectedStartIndex) {
+            this.fetcher = fetcher;
+            this.query = query;
+            this.number = number;
+            this.expectedStartIndex = expectedStartIndex;
+        }
+
+        @Override
+        public Page<T> call() {
+            QueryResult<T> result = fetcher.fetch(query);
+            // the queries step by their count per page, the pages must be as large for the steps to meet
+            if (result.getStartIndex() != expectedStartIndex) {
+                throw new IllegalStateException("Page " + number + " starts at " + result.getStartIndex()
+                        + " instead of " + expectedStartIndex + ", the server returned fewer resources per page "
+                        + "than the query's count per page");
+            }
+            return new Page<>(number, result.getResources());
+        }
+    }
+
+    private static class Page<T> {
+
+        final int number;
+        final List<T> resources;
+
+        Page(int number, List<T> resources) {
+            this.number = number;
+            this.resources = resources;
+        }
+    }
+
+    public static class Builder<T> {
+
+        private final PageFetcher<T> fetcher;
+        private Query firstPage;
+        private int concurrency = 4;
+        private ExecutorService executor;
+
+        public Builder(PageFetcher<T> fetcher, Class<T> resourceType) {
+            this.fetcher = fetcher;
+            firstPage = new Query.Builder(resourceType).setStartIndex(1).setCountPerPage(100).build();
+        }
+
+        /**
+         * @param firstPage the query of the first page, its filter, sorting and count per page apply to all pages;
+         *                  default all resources, 100 per page
+         */
+        public Builder<T> setQuery(Query firstPage) {
+            this.firstPage = firstPage;
+            return this;
+        }
+
+        /**
+         * @param concurrency the maximum number of page requests in flight, default 4
+         */
+        public Builder<T> setConcurrency(int concurrency) {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("At least one request must be allowed in flight");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param executor runs the page requests; default a cached pool of daemon threads
+         */
+        public Builder<T> setExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public ParallelPageScan<T> build() {
+            return new ParallelPageScan<>(this);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.osiam.client.projection;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.QueryResult;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Restricts the attributes the resource server returns to the given ones, with the SCIM <code>attributes</code>
+ * parameter. Attributes that are not requested are null in the deserialized resources.
+ * <p/>
+ * The parameter is appended to the query strings of {@link OsiamOperations#searchUsers(String, AccessToken)} and
+ * {@link OsiamOperations#searchGroups(String, AccessToken)}; single resources are read with an <code>id eq</code>
+ * filter, since the get methods of the connector take no parameters.
+ */
+public final class AttributeProjection {
+
+    /**
+     * What most callers need to know about a user.
+     */
+    public static final AttributeProjection USER_SUMMARY = of("id", "userName", "active");
+
+    private final List<String> attributes;
+
+    private AttributeProjection(List<String> attributes) {
+        this.attributes = Collections.unmodifiableList(attributes);
+    }
+
+    public static AttributeProjection of(String... attributes) {
+        if (attributes.length == 0) {
+            throw new IllegalArgumentException("At least one attribute is needed");
+        }
+        return new AttributeProjection(Arrays.asList(attributes));
+    }
+
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return the encoded attributes parameter, e.g. <code>attributes=id%2CuserName</code>
+     */
+    public String toQueryParameter() {
+        StringBuilder sb = new StringBuilder();
+        for (String attribute : attributes) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(attribute);
+        }
+        return "attributes=" + encode(sb.toString());
+    }
+
+    /**
+     * @param queryString an encoded query string like <code>filter=userName%20eq%20bjensen</code>, may be empty
+     */
+    public String appendTo(String queryString) {
+        return queryString == null || queryString.isEmpty() ? toQueryParameter()
+                : queryString + "&" + toQueryParameter();
+    }
+
+    public QueryResult<User> searchUsers(OsiamOperations connector, String queryString, AccessToken accessToken) {
+        return connector.searchUsers(appendTo(queryString), accessToken);
+    }
+
+    public QueryResult<Group> searchGroups(OsiamOperations connector, String queryString, AccessToken accessToken) {
+        return connector.searchGroups(appendTo(queryString), accessToken);
+    }
+
+    /**
+     * @return the projected user, or null if there is no user with the given id
+     */
+    public User getUser(OsiamOperations connector, String id, AccessToken accessToken) {
+        List<User> users = searchUsers(connector, byId(id), accessToken).getResources();
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    /**
+     * @return the projected group, or null if there is no group with the given id
+     */
+    public Group getGroup(OsiamOperations connector, String id, AccessToken accessToken) {
+        List<Group> groups = searchGroups(connector, byId(id), accessToken).getResources();
+        return groups.isEmpty() ? null : groups.get(0);
+    }
+
+    private static String byId(String id) {
+        return "filter=" + encode("id eq " + id);
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toQueryParameter();
+    }
+}
@@ -0,0 +1,77 @@
+package org.osiam.client.requestlog;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The requests of one endpoint, i.e. one method and one normalized path, found in a request log. Latencies are in
+ * milliseconds and only known if the log was written with logLatency enabled.
+ */
+public class EndpointStatistics {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String endpoint;
+    private final Map<Integer, Long> statusCounts = new TreeMap<>();
+    private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+    private long count;
+    private long bytes;
+
+    EndpointStatistics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void add(int status, long responseBytes, long latencyMillis) {
+        count++;
+        bytes += responseBytes;
+        Long statusCount = statusCounts.get(status);
+        statusCounts.put(status, statusCount == null ? 1L : statusCount + 1);
+        if (latencyMillis >= 0) {
+            latencies.recordValue(Math.min(latencyMillis, HIGHEST_TRACKABLE_LATENCY));
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of requests per HTTP status code, ordered by status code
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    /**
+     * @return the number of requests with a status code in the given class, e.g. 4 for all 4xx responses
+     */
+    public long getStatusClassCount(int statusClass) {
+        long sum = 0;
+        for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+            if (entry.getKey() / 100 == statusClass) {
+                sum += entry.getValue();
+            }
+        }
+        return sum;
+    }
+
+    public boolean hasLatencies() {
+        return latencies.getTotalCount() > 0;
+    }
+
+    public long getLatencyPercentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile);
+    }
+}
@@ -0,0 +1,168 @@
+package org.osiam.client.requestlog;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates Jetty NCSARequestLog files, as written by the jetty-maven-plugin and the embedded servers to
+ * <code>target/*.request.log</code>, into per endpoint statistics. The logs are read line by line, so they may be
+ * arbitrarily large.
+ * <p/>
+ * Paths are normalized to endpoints: the query string is dropped and every path segment that looks like an id, i.e. a
+ * UUID or a number, is replaced by <code>{id}</code>, so <code>GET /osiam-resource-server/Users/834b...</code> is
+ * counted as <code>GET /osiam-resource-server/Users/{id}</code>. Both the common and the extended format of Jetty 9 are
+ * understood, with or without the trailing latency of logLatency.
+ * <p/>
+ * Run with <code>mvn verify -Prequest-log</code>, usually together with the ITs or <code>-Pload</code>.
+ */
+public class RequestLogAnalyzer {
+
+    // Jetty 9 ends the byte count with a space, so the latency follows after two
+    private static final Pattern LINE = Pattern.compile(
+            "^\\S+ \\S+ \\S+ \\[[^\\]]+\\] \"(\\S+) (\\S+)[^\"]*\" (\\d{3}) (\\d+|-)(?: \"[^\"]*\" \"[^\"]*\")?(?:\\s+(\\d+))?\\s*$");
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+");
+
+    private final Map<String, EndpointStatistics> endpoints = new HashMap<>();
+    private long unparsedLines;
+
+    public void analyze(File logFile) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8)) {
+            analyze(reader);
+        }
+    }
+
+    public void analyze(Reader log) throws IOException {
+        BufferedReader reader = new BufferedReader(log);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            addLine(line);
+        }
+    }
+
+    void addLine(String line) {
+        Matcher matcher = LINE.matcher(line);
+        if (!matcher.matches()) {
+            if (!line.trim().isEmpty()) {
+                unparsedLines++;
+            }
+            return;
+        }
+        String endpoint = matcher.group(1) + " " + normalize(matcher.group(2));
+        EndpointStatistics statistics = endpoints.get(endpoint);
+        if (statistics == null) {
+            statistics = new EndpointStatistics(endpoint);
+            endpoints.put(endpoint, statistics);
+        }
+        String bytes = matcher.group(4);
+        String latency = matcher.group(5);
+        statistics.add(Integer.parseInt(matcher.group(3)),
+                "-".equals(bytes) ? 0 : Long.parseLong(bytes),
+                latency == null ? -1 : Long.parseLong(latency));
+    }
+
+    static String normalize(String uri) {
+        int queryStart = uri.indexOf('?');
+        String path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+        StringBuilder sb = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            sb.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return sb.length() == 0 ? "/" : sb.toString();
+    }
+
+    /**
+     * @return the statistics of all endpoints, the most requested first
+     */
+    public List<EndpointStatistics> getEndpoints() {
+        List<EndpointStatistics> result = new ArrayList<>(endpoints.values());
+        Collections.sort(result, new Comparator<EndpointStatistics>() {
+            @Override
+            public int compare(EndpointStatistics o1, EndpointStatistics o2) {
+                return Long.compare(o2.getCount(), o1.getCount());
+            }
+        });
+        return result;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (EndpointStatistics statistics : endpoints.values()) {
+            total += statistics.getCount();
+        }
+        return total;
+    }
+
+    public long getUnparsedLines() {
+        return unparsedLines;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%d requests, %d unparsed lines%n", getTotalCount(), unparsedLines);
+        out.printf("%-56s %8s %6s %6s %6s %6s %12s %8s %8s %8s%n",
+                "endpoint", "count", "2xx", "3xx", "4xx", "5xx", "bytes", "p50 ms", "p99 ms", "max ms");
+        for (EndpointStatistics statistics : getEndpoints()) {
+            out.printf("%-56s %8d %6d %6d %6d %6d %12d %8s %8s %8s%n",
+                    statistics.getEndpoint(),
+                    statistics.getCount(),
+                    statistics.getStatusClassCount(2),
+                    statistics.getStatusClassCount(3),
+                    statistics.getStatusClassCount(4),
+                    statistics.getStatusClassCount(5),
+                    statistics.getBytes(),
+                    latency(statistics, 50.0),
+                    latency(statistics, 99.0),
+                    latency(statistics, 100.0));
+        }
+    }
+
+    private static String latency(EndpointStatistics statistics, double percentile) {
+        return statistics.hasLatencies() ? String.valueOf(statistics.getLatencyPercentile(percentile)) : "-";
+    }
+
+    /**
+     * Analyzes the given request log files, or all <code>*.request.log</code> files in <code>target/</code> if none
+     * are given, and prints the statistics.
+     */
+    public static void main(String[] args) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            files.add(new File(arg));
+        }
+        if (files.isEmpty()) {
+            File[] logs = new File("target").listFiles(new FilenameFilter() {
+                @Override
+                public boolean accept(File dir, String name) {
+                    return name.endsWith(".request.log");
+                }
+            });
+            if (logs != null) {
+                Collections.addAll(files, logs);
+            }
+        }
+
+        RequestLogAnalyzer analyzer = new RequestLogAnalyzer();
+        for (File file : files) {
+            analyzer.analyze(file);
+        }
+        analyzer.print(System.out);
+    }
+}
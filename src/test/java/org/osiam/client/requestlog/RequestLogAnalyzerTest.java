@@ -0,0 +1,93 @@
+package org.osiam.client.requestlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Feeds lines as written by the NCSARequestLog of Jetty 9.0.2 through the analyzer. Jetty ends the byte count with a
+ * space, or writes " - " if it is unknown, and appends the latency after another space.
+ */
+public class RequestLogAnalyzerTest {
+
+    private static final String USER = "127.0.0.1 - - [17/Oct/2026:02:16:17 +0000] "
+            + "\"GET /osiam-resource-server/Users/834b410a-943b-4c80-817a-4465aed037bc HTTP/1.1\" 200 612  12";
+    private static final String SEARCH = "127.0.0.1 - - [17/Oct/2026:02:16:18 +0000] "
+            + "\"GET /osiam-resource-server/Users?filter=userName%20eq%20%22marissa%22 HTTP/1.1\" 200 1043  7";
+    private static final String UNKNOWN_LENGTH = "127.0.0.1 - - [17/Oct/2026:02:16:19 +0000] "
+            + "\"DELETE /osiam-resource-server/Users/618b398c-0110-43f2-95df-d1bc4e7d2b4a HTTP/1.1\" 204 -  3";
+    private static final String EXTENDED = "127.0.0.1 - - [17/Oct/2026:02:16:20 +0000] "
+            + "\"POST /osiam-auth-server/oauth/token HTTP/1.1\" 200 301 \"-\" \"Apache-HttpClient/4.2.3 (java 1.5)\" 25";
+    private static final String WITHOUT_LATENCY = "127.0.0.1 - - [17/Oct/2026:02:16:21 +0000] "
+            + "\"GET /osiam-resource-server/Groups/69e1a5dc-89be-4343-976c-b5541af249f4 HTTP/1.1\" 404 95 ";
+
+    @Test
+    public void latencies_of_jetty_9_lines_are_collected() throws IOException {
+        RequestLogAnalyzer analyzer = analyze(USER, USER.replace("  12", "  30"), SEARCH);
+
+        assertEquals(0, analyzer.getUnparsedLines());
+        List<EndpointStatistics> endpoints = analyzer.getEndpoints();
+        EndpointStatistics users = endpoints.get(0);
+        assertEquals("GET /osiam-resource-server/Users/{id}", users.getEndpoint());
+        assertEquals(2, users.getCount());
+        assertEquals(1224, users.getBytes());
+        assertTrue(users.hasLatencies());
+        assertEquals(30, users.getLatencyPercentile(100.0));
+        assertEquals("GET /osiam-resource-server/Users", endpoints.get(1).getEndpoint());
+    }
+
+    @Test
+    public void unknown_response_length_counts_as_zero_bytes() throws IOException {
+        RequestLogAnalyzer analyzer = analyze(UNKNOWN_LENGTH);
+
+        EndpointStatistics delete = analyzer.getEndpoints().get(0);
+        assertEquals(0, analyzer.getUnparsedLines());
+        assertEquals(0, delete.getBytes());
+        assertEquals(1, delete.getStatusClassCount(2));
+        assertEquals(3, delete.getLatencyPercentile(100.0));
+    }
+
+    @Test
+    public void extended_lines_are_understood() throws IOException {
+        RequestLogAnalyzer analyzer = analyze(EXTENDED);
+
+        EndpointStatistics token = analyzer.getEndpoints().get(0);
+        assertEquals(0, analyzer.getUnparsedLines());
+        assertEquals("POST /osiam-auth-server/oauth/token", token.getEndpoint());
+        assertEquals(25, token.getLatencyPercentile(100.0));
+    }
+
+    @Test
+    public void lines_without_latency_are_counted_without_one() throws IOException {
+        RequestLogAnalyzer analyzer = analyze(WITHOUT_LATENCY);
+
+        EndpointStatistics group = analyzer.getEndpoints().get(0);
+        assertEquals(0, analyzer.getUnparsedLines());
+        assertEquals(1, group.getStatusClassCount(4));
+        assertFalse(group.hasLatencies());
+    }
+
+    @Test
+    public void other_lines_are_counted_as_unparsed() throws IOException {
+        RequestLogAnalyzer analyzer = analyze("not a request log line", "", USER);
+
+        assertEquals(1, analyzer.getUnparsedLines());
+        assertEquals(1, analyzer.getTotalCount());
+    }
+
+    private static RequestLogAnalyzer analyze(String... lines) throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (String line : lines) {
+            log.append(line).append('\n');
+        }
+        RequestLogAnalyzer analyzer = new RequestLogAnalyzer();
+        analyzer.analyze(new StringReader(log.toString()));
+        return analyzer;
+    }
+}
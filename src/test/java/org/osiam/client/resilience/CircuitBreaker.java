@@ -0,0 +1,173 @@
+package org.osiam.client.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops calling a server after a number of consecutive failures, so that callers fail fast instead of piling up on a
+ * degraded server. After the open duration a single trial call is let through: if it succeeds the breaker closes, if
+ * it fails the breaker opens again. Only server failures count, a call the server answered with a client error is a
+ * success for the breaker. A call reports its outcome with the {@link Permit} it was let through with, so that a call
+ * that started before the breaker last changed its state cannot close or open it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Lets one call through; hand it back with {@link #onSuccess(Permit)} or {@link #onFailure(Permit)}, and always
+     * with {@link #release(Permit)} at the end, so that a trial call that ended otherwise does not block the breaker.
+     */
+    public static final class Permit {
+
+        private final long generation;
+        private final boolean trial;
+        private boolean completed;
+
+        private Permit(long generation, boolean trial) {
+            this.generation = generation;
+            this.trial = trial;
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    // counts the state changes, a permit of an earlier generation no longer affects the state
+    private long generation;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private CircuitBreaker(Builder builder) {
+        name = builder.name;
+        failureThreshold = builder.failureThreshold;
+        openNanos = builder.openNanos;
+    }
+
+    /**
+     * @throws CircuitOpenException if the breaker is open, or half open and the trial call is still running
+     */
+    public synchronized Permit acquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                throw new CircuitOpenException(name);
+            }
+            changeState(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                throw new CircuitOpenException(name);
+            }
+            trialInFlight = true;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    public synchronized void onSuccess(Permit permit) {
+        if (!complete(permit)) {
+            return;
+        }
+        if (permit.trial) {
+            trialInFlight = false;
+            changeState(State.CLOSED);
+        }
+        failures = 0;
+    }
+
+    public synchronized void onFailure(Permit permit) {
+        if (!complete(permit)) {
+            return;
+        }
+        if (permit.trial) {
+            trialInFlight = false;
+            open();
+        } else if (++failures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Hands back a permit whose call reported no outcome, e.g. because it ended with an <code>Error</code>; does
+     * nothing if it did.
+     */
+    public synchronized void release(Permit permit) {
+        if (complete(permit) && permit.trial) {
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * @return whether the permit was not handed back yet and was acquired in the current state
+     */
+    private boolean complete(Permit permit) {
+        if (permit.completed) {
+            return false;
+        }
+        permit.completed = true;
+        return permit.generation == generation;
+    }
+
+    private void open() {
+        changeState(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void changeState(State newState) {
+        state = newState;
+        failures = 0;
+        generation++;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static class Builder {
+
+        private final String name;
+        private int failureThreshold = 5;
+        private long openNanos = TimeUnit.SECONDS.toNanos(10);
+
+        /**
+         * @param name the server the breaker protects, used in the messages
+         */
+        public Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @param failureThreshold the consecutive failures that open the breaker; default 5
+         */
+        public Builder setFailureThreshold(int failureThreshold) {
+            if (failureThreshold <= 0) {
+                throw new IllegalArgumentException("The failure threshold must be positive");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * @param openDuration how long the breaker stays open before a trial call; default 10 seconds
+         */
+        public Builder setOpenDuration(long openDuration, TimeUnit unit) {
+            openNanos = unit.toNanos(openDuration);
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.osiam.client.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Completes permits in orders that concurrent calls produce, which <code>ResilienceIT</code> cannot time reliably.
+ */
+public class CircuitBreakerTest {
+
+    private final CircuitBreaker breaker = new CircuitBreaker.Builder("server")
+            .setFailureThreshold(1).setOpenDuration(50, TimeUnit.MILLISECONDS).build();
+
+    @Test
+    public void success_of_a_call_started_before_the_breaker_opened_does_not_close_it() {
+        CircuitBreaker.Permit slow = breaker.acquirePermission();
+        breaker.onFailure(breaker.acquirePermission());
+
+        breaker.onSuccess(slow);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void success_of_an_earlier_call_does_not_close_a_half_open_breaker() throws InterruptedException {
+        CircuitBreaker.Permit slow = breaker.acquirePermission();
+        breaker.onFailure(breaker.acquirePermission());
+        Thread.sleep(100);
+        breaker.acquirePermission();
+
+        breaker.onSuccess(slow);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        expectOpenException();
+    }
+
+    @Test
+    public void only_the_trial_call_closes_a_half_open_breaker() throws InterruptedException {
+        breaker.onFailure(breaker.acquirePermission());
+        Thread.sleep(100);
+
+        breaker.onSuccess(breaker.acquirePermission());
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void released_trial_without_outcome_lets_the_next_trial_through() throws InterruptedException {
+        breaker.onFailure(breaker.acquirePermission());
+        Thread.sleep(100);
+        CircuitBreaker.Permit trial = breaker.acquirePermission();
+        expectOpenException();
+
+        breaker.release(trial);
+
+        breaker.onSuccess(breaker.acquirePermission());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void release_after_the_outcome_changes_nothing() throws InterruptedException {
+        breaker.onFailure(breaker.acquirePermission());
+        Thread.sleep(100);
+        CircuitBreaker.Permit trial = breaker.acquirePermission();
+        breaker.onFailure(trial);
+
+        breaker.release(trial);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void expectOpenException() {
+        try {
+            breaker.acquirePermission();
+            fail("CircuitOpenException expected");
+        } catch (CircuitOpenException expected) {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.osiam.client.resilience;
+
+/**
+ * Thrown instead of calling a server whose {@link CircuitBreaker} is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String name) {
+        super("The circuit breaker of the " + name + " is open");
+    }
+}
@@ -0,0 +1,299 @@
+package org.osiam.client.resilience;
+
+import java.util.List;
+
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.metrics.ConnectorMetrics;
+import org.osiam.client.metrics.NoOpConnectorMetrics;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.operations.OsiamOperations;
+import org.osiam.client.query.Query;
+import org.osiam.client.query.QueryResult;
+import org.osiam.client.update.UpdateGroup;
+import org.osiam.client.update.UpdateUser;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+/**
+ * Offers the calls of an {@link OsiamConnector} with retries and circuit breaking. Idempotent calls, i.e. token
+ * retrievals, reads, searches and deletes, are retried according to the {@link RetryPolicy}; creates and updates are
+ * called once. The auth server and the resource server each have their own {@link CircuitBreaker}, so a degraded
+ * resource server does not stop token retrieval and vice versa. A retried delete that already succeeded on the first
+ * attempt fails with the usual not found exception.
+ */
+public class ResilientOsiamConnector implements OsiamOperations {
+
+    private final OsiamConnector connector;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker authServer;
+    private final CircuitBreaker resourceServer;
+    private final ConnectorMetrics metrics;
+
+    private ResilientOsiamConnector(Builder builder) {
+        connector = builder.connector;
+        retryPolicy = builder.retryPolicy;
+        authServer = builder.authServer;
+        resourceServer = builder.resourceServer;
+        metrics = builder.metrics;
+    }
+
+    @Override
+    public AccessToken retrieveAccessToken() {
+        return call("retrieveAccessToken", authServer, true, new Call<AccessToken>() {
+            @Override
+            public AccessToken call() {
+                return connector.retrieveAccessToken();
+            }
+        });
+    }
+
+    @Override
+    public User getUser(final String id, final AccessToken accessToken) {
+        return call("getUser", resourceServer, true, new Call<User>() {
+            @Override
+            public User call() {
+                return connector.getUser(id, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public Group getGroup(final String id, final AccessToken accessToken) {
+        return call("getGroup", resourceServer, true, new Call<Group>() {
+            @Override
+            public Group call() {
+                return connector.getGroup(id, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public User getMe(final AccessToken accessToken) {
+        return call("getMe", resourceServer, true, new Call<User>() {
+            @Override
+            public User call() {
+                return connector.getMe(accessToken);
+            }
+        });
+    }
+
+    @Override
+    public List<User> getAllUsers(final AccessToken accessToken) {
+        return call("getAllUsers", resourceServer, true, new Call<List<User>>() {
+            @Override
+            public List<User> call() {
+                return connector.getAllUsers(accessToken);
+            }
+        });
+    }
+
+    @Override
+    public List<Group> getAllGroups(final AccessToken accessToken) {
+        return call("getAllGroups", resourceServer, true, new Call<List<Group>>() {
+            @Override
+            public List<Group> call() {
+                return connector.getAllGroups(accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<User> searchUsers(final Query query, final AccessToken accessToken) {
+        return call("searchUsers", resourceServer, true, new Call<QueryResult<User>>() {
+            @Override
+            public QueryResult<User> call() {
+                return connector.searchUsers(query, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<User> searchUsers(final String queryString, final AccessToken accessToken) {
+        return call("searchUsers", resourceServer, true, new Call<QueryResult<User>>() {
+            @Override
+            public QueryResult<User> call() {
+                return connector.searchUsers(queryString, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<Group> searchGroups(final Query query, final AccessToken accessToken) {
+        return call("searchGroups", resourceServer, true, new Call<QueryResult<Group>>() {
+            @Override
+            public QueryResult<Group> call() {
+                return connector.searchGroups(query, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public QueryResult<Group> searchGroups(final String queryString, final AccessToken accessToken) {
+        return call("searchGroups", resourceServer, true, new Call<QueryResult<Group>>() {
+            @Override
+            public QueryResult<Group> call() {
+                return connector.searchGroups(queryString, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public User createUser(final User user, final AccessToken accessToken) {
+        return call("createUser", resourceServer, false, new Call<User>() {
+            @Override
+            public User call() {
+                return connector.createUser(user, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public Group createGroup(final Group group, final AccessToken accessToken) {
+        return call("createGroup", resourceServer, false, new Call<Group>() {
+            @Override
+            public Group call() {
+                return connector.createGroup(group, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public User updateUser(final String id, final UpdateUser updateUser, final AccessToken accessToken) {
+        return call("updateUser", resourceServer, false, new Call<User>() {
+            @Override
+            public User call() {
+                return connector.updateUser(id, updateUser, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public Group updateGroup(final String id, final UpdateGroup updateGroup, final AccessToken accessToken) {
+        return call("updateGroup", resourceServer, false, new Call<Group>() {
+            @Override
+            public Group call() {
+                return connector.updateGroup(id, updateGroup, accessToken);
+            }
+        });
+    }
+
+    @Override
+    public void deleteUser(final String id, final AccessToken accessToken) {
+        call("deleteUser", resourceServer, true, new Call<Void>() {
+            @Override
+            public Void call() {
+                connector.deleteUser(id, accessToken);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void deleteGroup(final String id, final AccessToken accessToken) {
+        call("deleteGroup", resourceServer, true, new Call<Void>() {
+            @Override
+            public Void call() {
+                connector.deleteGroup(id, accessToken);
+                return null;
+            }
+        });
+    }
+
+    public CircuitBreaker getAuthServerBreaker() {
+        return authServer;
+    }
+
+    public CircuitBreaker getResourceServerBreaker() {
+        return resourceServer;
+    }
+
+    public OsiamConnector getConnector() {
+        return connector;
+    }
+
+    private <T> T call(String operation, CircuitBreaker breaker, boolean idempotent, Call<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            CircuitBreaker.Permit permit = breaker.acquirePermission();
+            RuntimeException failure;
+            try {
+                T result = call.call();
+                breaker.onSuccess(permit);
+                return result;
+            } catch (RuntimeException e) {
+                if (!retryPolicy.isRetryable(e)) {
+                    // neither a server error nor an I/O failure, so not a sign of a degraded server
+                    breaker.onSuccess(permit);
+                    throw e;
+                }
+                breaker.onFailure(permit);
+                failure = e;
+            } finally {
+                // an Error must not leave a trial call in flight forever
+                breaker.release(permit);
+            }
+            if (!idempotent || attempt >= retryPolicy.getMaxAttempts()) {
+                throw failure;
+            }
+            metrics.retried(operation);
+            try {
+                Thread.sleep(retryPolicy.backoffMillis(attempt));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                throw failure;
+            }
+        }
+    }
+
+    private interface Call<T> {
+        T call();
+    }
+
+    public static class Builder {
+
+        private final OsiamConnector connector;
+        private RetryPolicy retryPolicy = new RetryPolicy.Builder().build();
+        private CircuitBreaker authServer = new CircuitBreaker.Builder("auth server").build();
+        private CircuitBreaker resourceServer = new CircuitBreaker.Builder("resource server").build();
+        private ConnectorMetrics metrics = NoOpConnectorMetrics.INSTANCE;
+
+        public Builder(OsiamConnector connector) {
+            this.connector = connector;
+        }
+
+        /**
+         * @param retryPolicy default 3 attempts with 100 ms initial backoff, see {@link RetryPolicy.Builder}
+         */
+        public Builder setRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param authServer default opens after 5 consecutive failures for 10 seconds
+         */
+        public Builder setAuthServerBreaker(CircuitBreaker authServer) {
+            this.authServer = authServer;
+            return this;
+        }
+
+        /**
+         * @param resourceServer default opens after 5 consecutive failures for 10 seconds
+         */
+        public Builder setResourceServerBreaker(CircuitBreaker resourceServer) {
+            this.resourceServer = resourceServer;
+            return this;
+        }
+
+        /**
+         * @param metrics counts the retries; default {@link NoOpConnectorMetrics}
+         */
+        public Builder setMetrics(ConnectorMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public ResilientOsiamConnector build() {
+            return new ResilientOsiamConnector(this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.osiam.client.resilience;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.osiam.client.http.ErrorStatus;
+
+/**
+ * How often and after which pause a failed idempotent call is repeated. The pause grows exponentially from the
+ * initial backoff up to the maximum backoff, and a random part of it, the jitter, is left out, so that clients that
+ * failed together do not retry together.
+ * <p/>
+ * Only server errors, i.e. 5xx responses, and I/O failures are retried, as recovered by {@link ErrorStatus}. Anything
+ * else is not: repeating a bad, conflicting or forbidden request cannot change its outcome, and an error the
+ * connector reports without a known status, or a {@link CircuitOpenException}, is not known to be transient.
+ */
+public final class RetryPolicy {
+
+    /**
+     * Calls once, never retries.
+     */
+    public static final RetryPolicy NONE = new Builder().setMaxAttempts(1).build();
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double multiplier;
+    private final double jitter;
+
+    private RetryPolicy(Builder builder) {
+        maxAttempts = builder.maxAttempts;
+        initialBackoffMillis = builder.initialBackoffMillis;
+        maxBackoffMillis = builder.maxBackoffMillis;
+        multiplier = builder.multiplier;
+        jitter = builder.jitter;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public boolean isRetryable(RuntimeException error) {
+        if (error instanceof CircuitOpenException) {
+            return false;
+        }
+        return ErrorStatus.isIoFailure(error) || ErrorStatus.of(error) >= 500;
+    }
+
+    /**
+     * @param failedAttempts the number of attempts that failed so far, at least 1
+     * @return the pause before the next attempt in milliseconds
+     */
+    public long backoffMillis(int failedAttempts) {
+        double backoff = Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(multiplier, failedAttempts - 1));
+        return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    public static class Builder {
+
+        private int maxAttempts = 3;
+        private long initialBackoffMillis = 100;
+        private long maxBackoffMillis = 2000;
+        private double multiplier = 2;
+        private double jitter = 0.5;
+
+        /**
+         * @param maxAttempts the attempts including the first call; default 3
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("At least one attempt is needed");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoff the pause after the first failure, default 100 ms
+         * @param maxBackoff     the longest pause, default 2 seconds
+         */
+        public Builder setBackoff(long initialBackoff, long maxBackoff, TimeUnit unit) {
+            if (initialBackoff < 0 || maxBackoff < initialBackoff) {
+                throw new IllegalArgumentException("The backoff must be 0 <= initial <= max");
+            }
+            initialBackoffMillis = unit.toMillis(initialBackoff);
+            maxBackoffMillis = unit.toMillis(maxBackoff);
+            return this;
+        }
+
+        /**
+         * @param multiplier the factor the pause grows by with every failure; default 2
+         */
+        public Builder setMultiplier(double multiplier) {
+            if (multiplier < 1) {
+                throw new IllegalArgumentException("The multiplier must be at least 1");
+            }
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * @param jitter the part of the pause that is randomly left out, between 0 and 1; default 0.5
+         */
+        public Builder setJitter(double jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("The jitter must be in [0, 1]");
+            }
+            this.jitter = jitter;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.osiam.client.server;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.server.NCSARequestLog;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.ContextHandlerCollection;
+import org.eclipse.jetty.server.handler.HandlerCollection;
+import org.eclipse.jetty.server.handler.RequestLogHandler;
+import org.eclipse.jetty.webapp.WebAppContext;
+import org.osiam.client.TestEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs osiam-auth-server and osiam-resource-server in the test JVM, on the port given by {@link TestEnvironment}.
+ * The servers are booted lazily by the first test class that needs them, through {@link EmbeddedOsiamRule} or the
+ * Spock extension <code>@EmbeddedOsiamServer</code>, and are then shared by all test classes of the JVM until it
+ * exits. This makes the ITs runnable from the IDE without the Maven lifecycle, and gives every parallel failsafe
+ * fork its own servers and its own in-memory H2 database.
+ * <p/>
+ * The system property osiam.test.embedded controls the boot: <code>true</code> always boots, <code>false</code>
+ * never does and <code>auto</code> boots unless a server, e.g. the one of the jetty-maven-plugin, is already
+ * listening on the port. The exploded WARs are taken from osiam.test.authServerWar and osiam.test.resourceServerWar,
+ * or looked up in <code>target/</code>. The webapps load classes parent first, so they share the H2 driver, and with
+ * it the in-memory database, with the test code. If no H2 TCP server is running on its default port, one is started
+ * as well.
+ */
+public final class EmbeddedOsiam {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedOsiam.class);
+    private static final int H2_TCP_PORT = 9092;
+
+    private static Server server;
+    private static boolean checked;
+    private static long startupMillis = -1;
+
+    private EmbeddedOsiam() {
+    }
+
+    /**
+     * Boots the servers if needed. Only the first call per JVM does any work.
+     */
+    public static synchronized void ensureStarted() throws Exception {
+        if (checked) {
+            return;
+        }
+        checked = true;
+        if ("false".equals(TestEnvironment.EMBEDDED)
+                || "auto".equals(TestEnvironment.EMBEDDED) && isPortInUse()) {
+            LOGGER.info("Using the OSIAM servers running on {}:{}", TestEnvironment.HOST, TestEnvironment.PORT);
+            return;
+        }
+        start();
+    }
+
+    /**
+     * @return the time it took to boot the embedded servers in milliseconds, or -1 if they were not booted
+     */
+    public static synchronized long getStartupMillis() {
+        return startupMillis;
+    }
+
+    public static synchronized boolean isRunning() {
+        return server != null && server.isRunning();
+    }
+
+    private static void start() throws Exception {
+        long start = System.nanoTime();
+        startH2TcpServer();
+        // resolves the ${osiam.test.port} placeholder of osiam.properties in the webapps and the test context
+        System.setProperty("osiam.test.port", String.valueOf(TestEnvironment.PORT));
+
+        Server newServer = new Server();
+        ServerConnector connector = new ServerConnector(newServer);
+        connector.setHost(TestEnvironment.HOST);
+        connector.setPort(TestEnvironment.PORT);
+        connector.setIdleTimeout(30000);
+        newServer.addConnector(connector);
+
+        ContextHandlerCollection contexts = new ContextHandlerCollection();
+        contexts.addHandler(webApp("osiam.test.authServerWar", "osiam-auth-server"));
+        WebAppContext resourceServer = webApp("osiam.test.resourceServerWar", "osiam-resource-server");
+        resourceServer.setOverrideDescriptor(
+                EmbeddedOsiam.class.getResource("/resource-server-override-web.xml").toExternalForm());
+        contexts.addHandler(resourceServer);
+        HandlerCollection handlers = new HandlerCollection();
+        handlers.addHandler(contexts);
+        handlers.addHandler(requestLog());
+        newServer.setHandler(handlers);
+        newServer.setStopAtShutdown(true);
+        newServer.start();
+        server = newServer;
+
+        startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOGGER.info("Embedded OSIAM started on port {} in {} ms", TestEnvironment.PORT, startupMillis);
+    }
+
+    /**
+     * Logs like the jetty-maven-plugin does, every fork to its own file, for the RequestLogAnalyzer.
+     */
+    private static RequestLogHandler requestLog() {
+        int fork = Integer.getInteger("osiam.test.fork", 0);
+        NCSARequestLog requestLog = new NCSARequestLog(
+                "target/" + (fork > 0 ? "fork-" + fork + "." : "") + "yyyy_mm_dd.request.log");
+        requestLog.setAppend(true);
+        requestLog.setExtended(false);
+        requestLog.setLogTimeZone("GMT");
+        requestLog.setLogLatency(true);
+        RequestLogHandler handler = new RequestLogHandler();
+        handler.setRequestLog(requestLog);
+        return handler;
+    }
+
+    /**
+     * Outside of Maven nobody spawns the H2 TCP server the default osiam.properties points to.
+     */
+    private static void startH2TcpServer() {
+        if (isPortInUse("localhost", H2_TCP_PORT)) {
+            return;
+        }
+        try {
+            org.h2.tools.Server.createTcpServer("-tcpPort", String.valueOf(H2_TCP_PORT)).start();
+        } catch (SQLException e) {
+            // another fork was faster, the in-memory databases of parallel forks do not need it anyway
+            LOGGER.debug("Could not start H2 TCP server", e);
+        }
+    }
+
+    private static boolean isPortInUse() {
+        return isPortInUse(TestEnvironment.HOST, TestEnvironment.PORT);
+    }
+
+    private static boolean isPortInUse(String host, int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static WebAppContext webApp(String warProperty, final String name) {
+        String war = System.getProperty(warProperty);
+        if (war == null) {
+            File[] candidates = new File("target").listFiles(new FileFilter() {
+                @Override
+                public boolean accept(File file) {
+                    return file.isDirectory() && file.getName().startsWith(name + "-");
+                }
+            });
+            if (candidates != null && candidates.length == 1) {
+                war = candidates[0].getPath();
+            }
+        }
+        if (war == null || !new File(war).isDirectory()) {
+            throw new IllegalStateException("System property " + warProperty + " must point to the exploded "
+                    + name + " WAR, run 'mvn generate-test-resources' to unpack it to target/");
+        }
+        WebAppContext webApp = new WebAppContext(war, "/" + name);
+        webApp.setParentLoaderPriority(true);
+        return webApp;
+    }
+}
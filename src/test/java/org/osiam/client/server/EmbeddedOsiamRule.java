@@ -0,0 +1,16 @@
+package org.osiam.client.server;
+
+import org.junit.rules.ExternalResource;
+
+/**
+ * Class rule that makes sure the OSIAM servers are reachable before the first test of a class, booting the shared
+ * {@link EmbeddedOsiam} servers if needed. The servers are not stopped after the class, so all test classes of the
+ * JVM use the same instance.
+ */
+public class EmbeddedOsiamRule extends ExternalResource {
+
+    @Override
+    protected void before() throws Throwable {
+        EmbeddedOsiam.ensureStarted();
+    }
+}
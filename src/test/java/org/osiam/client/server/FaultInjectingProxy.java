@@ -0,0 +1,230 @@
+package org.osiam.client.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.params.CookiePolicy;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.osiam.client.TestEnvironment;
+import org.osiam.client.http.SharedHttpConnectionPool;
+
+/**
+ * A local HTTP proxy in front of the OSIAM servers that fails requests on demand. Connectors built with the proxy's
+ * endpoints instead of the ones of {@link TestEnvironment} see the faults exactly as they would see a degraded
+ * server. Requests without an injected fault are forwarded unchanged.
+ */
+public class FaultInjectingProxy {
+
+    public enum Fault {
+        /**
+         * Answers 503 Service Unavailable without forwarding.
+         */
+        SERVICE_UNAVAILABLE,
+        /**
+         * Answers 400 Bad Request without forwarding.
+         */
+        BAD_REQUEST,
+        /**
+         * Closes the connection without an answer.
+         */
+        CONNECTION_RESET
+    }
+
+    private static final String[] HOP_HEADERS = {"Host", "Content-Length", "Transfer-Encoding", "Connection"};
+
+    private final String target = "http://" + TestEnvironment.HOST + ":" + TestEnvironment.PORT;
+    private final ConcurrentLinkedQueue<Injection> injections = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final DefaultHttpClient httpClient;
+    private Server server;
+    private ServerConnector connector;
+
+    public FaultInjectingProxy() {
+        httpClient = SharedHttpConnectionPool.getDefault().newHttpClient();
+        httpClient.getParams().setBooleanParameter(ClientPNames.HANDLE_REDIRECTS, false);
+        httpClient.getParams().setParameter(ClientPNames.COOKIE_POLICY, CookiePolicy.IGNORE_COOKIES);
+    }
+
+    /**
+     * Starts the proxy on a free port.
+     */
+    public void start() throws Exception {
+        server = new Server();
+        connector = new ServerConnector(server);
+        connector.setHost(TestEnvironment.HOST);
+        connector.setPort(0);
+        server.addConnector(connector);
+        server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String path, Request baseRequest, HttpServletRequest request,
+                    HttpServletResponse response) throws IOException {
+                baseRequest.setHandled(true);
+                requests.incrementAndGet();
+                Fault fault = nextFault(request.getRequestURI());
+                if (fault == Fault.SERVICE_UNAVAILABLE) {
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                } else if (fault == Fault.BAD_REQUEST) {
+                    response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                } else if (fault == Fault.CONNECTION_RESET) {
+                    baseRequest.getHttpChannel().getEndPoint().close();
+                } else {
+                    forward(request, response);
+                }
+            }
+        });
+        server.start();
+    }
+
+    public void stop() throws Exception {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    public int getPort() {
+        return connector.getLocalPort();
+    }
+
+    public String getAuthEndpoint() {
+        return "http://" + TestEnvironment.HOST + ":" + getPort() + "/osiam-auth-server";
+    }
+
+    public String getResourceEndpoint() {
+        return "http://" + TestEnvironment.HOST + ":" + getPort() + "/osiam-resource-server";
+    }
+
+    /**
+     * Fails the next requests to any server.
+     *
+     * @param times the number of requests to fail
+     */
+    public void inject(Fault fault, int times) {
+        inject("/", fault, times);
+    }
+
+    /**
+     * Fails the next requests whose path starts with the given prefix, e.g. <code>/osiam-auth-server</code>.
+     *
+     * @param times the number of requests to fail
+     */
+    public void inject(String pathPrefix, Fault fault, int times) {
+        injections.add(new Injection(pathPrefix, fault, times));
+    }
+
+    /**
+     * Removes the injected faults that were not used up yet.
+     */
+    public void clear() {
+        injections.clear();
+    }
+
+    /**
+     * @return the number of requests that reached the proxy, failed or forwarded
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    private Fault nextFault(String path) {
+        for (Iterator<Injection> it = injections.iterator(); it.hasNext(); ) {
+            Injection injection = it.next();
+            if (!path.startsWith(injection.pathPrefix)) {
+                continue;
+            }
+            int left = injection.remaining.decrementAndGet();
+            if (left >= 0) {
+                return injection.fault;
+            }
+            it.remove();
+        }
+        return null;
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final String method = request.getMethod();
+        HttpEntityEnclosingRequestBase forward = new HttpEntityEnclosingRequestBase() {
+            @Override
+            public String getMethod() {
+                return method;
+            }
+        };
+        String query = request.getQueryString();
+        forward.setURI(URI.create(target + request.getRequestURI() + (query == null ? "" : "?" + query)));
+        for (Enumeration<String> names = request.getHeaderNames(); names.hasMoreElements(); ) {
+            String name = names.nextElement();
+            if (isHopHeader(name)) {
+                continue;
+            }
+            for (Enumeration<String> values = request.getHeaders(name); values.hasMoreElements(); ) {
+                forward.addHeader(name, values.nextElement());
+            }
+        }
+        if (request.getContentLength() > 0 || request.getHeader("Transfer-Encoding") != null) {
+            forward.setEntity(new InputStreamEntity(request.getInputStream(), request.getContentLength()));
+        }
+
+        try {
+            HttpResponse forwarded = httpClient.execute(forward);
+            response.setStatus(forwarded.getStatusLine().getStatusCode());
+            for (Header header : forwarded.getAllHeaders()) {
+                if (!isHopHeader(header.getName())) {
+                    response.addHeader(header.getName(), header.getValue());
+                }
+            }
+            HttpEntity entity = forwarded.getEntity();
+            if (entity != null) {
+                try (InputStream in = entity.getContent(); OutputStream out = response.getOutputStream()) {
+                    byte[] buffer = new byte[8192];
+                    for (int n; (n = in.read(buffer)) != -1; ) {
+                        out.write(buffer, 0, n);
+                    }
+                }
+                EntityUtils.consume(entity);
+            }
+        } finally {
+            forward.releaseConnection();
+        }
+    }
+
+    private static boolean isHopHeader(String name) {
+        for (String hopHeader : HOP_HEADERS) {
+            if (hopHeader.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Injection {
+
+        final String pathPrefix;
+        final Fault fault;
+        final AtomicInteger remaining;
+
+        Injection(String pathPrefix, Fault fault, int times) {
+            this.pathPrefix = pathPrefix;
+            this.fault = fault;
+            remaining = new AtomicInteger(times);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.osiam.client.server;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Caches the token validations of osiam-resource-server. Without it every bearer request validates its token against
+ * the auth server; with it only the first request per token does, and later requests reuse the validated
+ * authentication, i.e. the principal and the scopes, until the token expires or the TTL is over, whichever comes
+ * first. The TTL bounds how long a revoked token is still accepted.
+ * <p/>
+ * The resource server is not built from this tree, so the cache is a bean post processor in
+ * <code>jpa-configuration.xml</code>. It wraps every bean implementing spring-security-oauth2's
+ * <code>ResourceServerTokenServices</code> and caches the results of <code>loadAuthentication</code>. The expiry is
+ * taken from <code>readAccessToken</code> on every cache miss; tokens without a known expiry and failed validations
+ * are never cached. The properties are osiam.tokenCache.maxEntries and osiam.tokenCache.ttlSeconds of
+ * osiam.properties, a maximum of 0 entries disables the cache.
+ */
+public class TokenValidationCache implements BeanPostProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenValidationCache.class);
+    private static final String TOKEN_SERVICES =
+            "org.springframework.security.oauth2.provider.token.ResourceServerTokenServices";
+
+    private static volatile TokenValidationCache instance;
+
+    private final Map<String, Validation> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int maxEntries = 10000;
+    private long ttlMillis = TimeUnit.SECONDS.toMillis(60);
+    private volatile boolean enabled = true;
+
+    public TokenValidationCache() {
+        entries = new LinkedHashMap<String, Validation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validation> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        instance = this;
+    }
+
+    /**
+     * @return the cache of the resource server running in this JVM, null if it runs elsewhere
+     */
+    public static TokenValidationCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param maxEntries the number of tokens kept, the least recently used are evicted; default 10000
+     */
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("The maximum number of entries must not be negative");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param ttlSeconds the longest time a validation is reused, even if the token is still valid; default 60
+     */
+    public void setTtlSeconds(long ttlSeconds) {
+        if (ttlSeconds < 0) {
+            throw new IllegalArgumentException("The TTL must not be negative");
+        }
+        ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    /**
+     * Turns the cache off and on at runtime, e.g. to measure the difference. Turning it off clears it.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of validations answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of validations passed on to the token services
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        List<Class<?>> interfaces = interfacesOf(bean.getClass());
+        for (Class<?> type : interfaces) {
+            if (TOKEN_SERVICES.equals(type.getName())) {
+                LOGGER.info("Caching the token validations of bean {}", beanName);
+                return Proxy.newProxyInstance(bean.getClass().getClassLoader(),
+                        interfaces.toArray(new Class<?>[interfaces.size()]), new CachingHandler(bean, type));
+            }
+        }
+        return bean;
+    }
+
+    private Object loadAuthentication(Object tokenServices, Method method, Method readAccessToken, String token)
+            throws Throwable {
+        if (!enabled || maxEntries == 0 || token == null) {
+            return invoke(tokenServices, method, token);
+        }
+        long now = System.currentTimeMillis();
+        Validation cached;
+        synchronized (entries) {
+            cached = entries.get(token);
+            if (cached != null && now >= cached.validUntil) {
+                entries.remove(token);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.authentication;
+        }
+
+        misses.incrementAndGet();
+        // throws for invalid and expired tokens, those are never cached
+        Object authentication = invoke(tokenServices, method, token);
+        Date expiration = expirationOf(tokenServices, readAccessToken, token);
+        if (authentication != null && expiration != null) {
+            long validUntil = Math.min(expiration.getTime(), now + ttlMillis);
+            synchronized (entries) {
+                entries.put(token, new Validation(authentication, validUntil));
+            }
+        }
+        return authentication;
+    }
+
+    private static Date expirationOf(Object tokenServices, Method readAccessToken, String token) {
+        if (readAccessToken == null) {
+            return null;
+        }
+        try {
+            Object accessToken = readAccessToken.invoke(tokenServices, token);
+            return accessToken == null ? null
+                    : (Date) accessToken.getClass().getMethod("getExpiration").invoke(accessToken);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Could not read the expiry of the access token, not caching it", e);
+            return null;
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object... args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<Class<?>> interfacesOf(Class<?> type) {
+        List<Class<?>> interfaces = new ArrayList<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> candidate : current.getInterfaces()) {
+                if (!interfaces.contains(candidate)) {
+                    interfaces.add(candidate);
+                }
+            }
+        }
+        return interfaces;
+    }
+
+    private class CachingHandler implements InvocationHandler {
+
+        private final Object tokenServices;
+        private final Method readAccessToken;
+
+        CachingHandler(Object tokenServices, Class<?> tokenServicesType) {
+            this.tokenServices = tokenServices;
+            Method method;
+            try {
+                method = tokenServicesType.getMethod("readAccessToken", String.class);
+            } catch (NoSuchMethodException e) {
+                method = null;
+            }
+            readAccessToken = method;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("loadAuthentication".equals(method.getName())
+                    && Arrays.equals(method.getParameterTypes(), new Class<?>[]{String.class})) {
+                return loadAuthentication(tokenServices, method, readAccessToken, (String) args[0]);
+            }
+            return TokenValidationCache.invoke(tokenServices, method, args);
+        }
+    }
+
+    private static class Validation {
+
+        final Object authentication;
+        final long validUntil;
+
+        Validation(Object authentication, long validUntil) {
+            this.authentication = authentication;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.osiam.client.server;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Reports the counters of the {@link TokenValidationCache} as <code>{"hits":..,"misses":..}</code>, so that tests can
+ * read them when the resource server runs in another JVM, e.g. the one of the jetty-maven-plugin. Mapped to
+ * <code>/tokenValidationCache</code> by <code>resource-server-override-web.xml</code>; answers 404 if the webapp
+ * has no cache.
+ */
+public class TokenValidationCacheServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TokenValidationCache cache = TokenValidationCache.getInstance();
+        if (cache == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType("application/json");
+        response.setHeader("Cache-Control", "no-store");
+        response.getWriter().printf("{\"hits\":%d,\"misses\":%d}", cache.getHits(), cache.getMisses());
+    }
+}
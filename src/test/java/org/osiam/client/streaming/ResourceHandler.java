@@ -0,0 +1,9 @@
+package org.osiam.client.streaming;
+
+/**
+ * Receives the resources of a search one at a time, while the response is still being read.
+ */
+public interface ResourceHandler<T> {
+
+    void handle(T resource);
+}
@@ -0,0 +1,301 @@
+package org.osiam.client.streaming;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.osiam.client.connector.OsiamConnector;
+import org.osiam.client.http.SharedHttpConnectionPool;
+import org.osiam.client.http.TransferredBytes;
+import org.osiam.client.metrics.ConnectorMetrics;
+import org.osiam.client.metrics.NoOpConnectorMetrics;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.resources.scim.Group;
+import org.osiam.resources.scim.User;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Searches users and groups like {@link OsiamConnector#searchUsers(String, AccessToken)}, but binds the elements of
+ * <code>Resources</code> one at a time while the response is read from the connection. The connector reads the whole
+ * response into a String, parses it into a tree and binds the tree into a <code>QueryResult</code>, so a page of 1000
+ * users briefly needs several times its size on the heap. Here only the resource currently bound is held, unless the
+ * caller keeps it.
+ * <p/>
+ * The query strings are the same as those of the connector, e.g. <code>filter=...&count=1000&startIndex=1</code>.
+ */
+public class StreamingSearch {
+
+    private static final String RESOURCES = "Resources";
+    private static final String TOTAL_RESULTS = "totalResults";
+
+    private final String resourceEndpoint;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final ConnectorMetrics metrics;
+
+    private StreamingSearch(Builder builder) {
+        resourceEndpoint = builder.resourceEndpoint;
+        httpClient = builder.pool.newHttpClient();
+        metrics = builder.metrics;
+        mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * @return the totalResults of the search
+     */
+    public long searchUsers(String queryString, AccessToken accessToken, ResourceHandler<User> handler) {
+        return search("/Users", User.class, queryString, accessToken, handler);
+    }
+
+    /**
+     * @return the totalResults of the search
+     */
+    public long searchGroups(String queryString, AccessToken accessToken, ResourceHandler<Group> handler) {
+        return search("/Groups", Group.class, queryString, accessToken, handler);
+    }
+
+    /**
+     * @return the users of the page; the iterator holds the connection until it is consumed to the end or closed
+     */
+    public ResourceIterator<User> iterateUsers(String queryString, AccessToken accessToken) {
+        return open("/Users", User.class, queryString, accessToken);
+    }
+
+    /**
+     * @return the groups of the page; the iterator holds the connection until it is consumed to the end or closed
+     */
+    public ResourceIterator<Group> iterateGroups(String queryString, AccessToken accessToken) {
+        return open("/Groups", Group.class, queryString, accessToken);
+    }
+
+    private <T> long search(String path, Class<T> resourceType, String queryString, AccessToken accessToken,
+            ResourceHandler<T> handler) {
+        try (ResourceIterator<T> resources = open(path, resourceType, queryString, accessToken)) {
+            while (resources.hasNext()) {
+                handler.handle(resources.next());
+            }
+            // fields after the Resources array are only known at the end
+            return resources.getTotalResults();
+        }
+    }
+
+    private <T> ResourceIterator<T> open(String path, Class<T> resourceType, String queryString,
+            AccessToken accessToken) {
+        HttpGet httpGet = new HttpGet(resourceEndpoint + path
+                + (queryString == null || queryString.isEmpty() ? "" : "?" + queryString));
+        httpGet.addHeader("Authorization", "Bearer " + accessToken.getToken());
+        String operation = "streamingSearch" + resourceType.getSimpleName() + "s";
+        HttpContext context = new BasicHttpContext();
+        try {
+            HttpResponse response = httpClient.execute(httpGet, context);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                String body = EntityUtils.toString(response.getEntity());
+                throw new IllegalStateException("Search of " + path + " failed with "
+                        + response.getStatusLine() + ": " + body);
+            }
+            JsonParser parser = mapper.getFactory().createParser(response.getEntity().getContent());
+            return new ResourceIterator<>(httpGet, parser, mapper, resourceType, new BytesReport(operation, context));
+        } catch (IOException e) {
+            httpGet.releaseConnection();
+            new BytesReport(operation, context).run();
+            throw new IllegalStateException("Could not search " + path, e);
+        } catch (RuntimeException e) {
+            httpGet.releaseConnection();
+            new BytesReport(operation, context).run();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands the bytes of one search to the metrics, once its connection was released.
+     */
+    private class BytesReport implements Runnable {
+
+        private final String operation;
+        private final HttpContext context;
+
+        BytesReport(String operation, HttpContext context) {
+            this.operation = operation;
+            this.context = context;
+        }
+
+        @Override
+        public void run() {
+            TransferredBytes bytes = TransferredBytes.of(context);
+            metrics.bytesSent(operation, bytes.getSent());
+            metrics.bytesReceived(operation, bytes.getReceived());
+        }
+    }
+
+    /**
+     * Binds the next resource only when it is asked for. Fields that precede <code>Resources</code> in the response,
+     * usually totalResults, are available before the first resource.
+     */
+    public static class ResourceIterator<T> implements Iterator<T>, Closeable {
+
+        private final HttpGet httpGet;
+        private final JsonParser parser;
+        private final ObjectMapper mapper;
+        private final Class<T> resourceType;
+        private final Runnable onClose;
+        private long totalResults = -1;
+        private boolean inResources;
+        private boolean complete;
+        private boolean done;
+        private T next;
+
+        ResourceIterator(HttpGet httpGet, JsonParser parser, ObjectMapper mapper, Class<T> resourceType,
+                Runnable onClose) throws IOException {
+            this.httpGet = httpGet;
+            this.parser = parser;
+            this.mapper = mapper;
+            this.resourceType = resourceType;
+            this.onClose = onClose;
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a SCIM list response");
+            }
+        }
+
+        /**
+         * @return the totalResults of the response, or -1 if it was not read yet
+         */
+        public long getTotalResults() {
+            return totalResults;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (done) {
+                return false;
+            }
+            try {
+                next = advance();
+            } catch (IOException e) {
+                close();
+                throw new IllegalStateException("Could not read the search response", e);
+            }
+            if (next == null) {
+                complete = true;
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T resource = next;
+            next = null;
+            return resource;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Releases the connection. Closing before the end aborts the response, the connection is not reused then.
+         */
+        @Override
+        public void close() {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (!complete) {
+                // otherwise closing the parser would read the rest of the response to reuse the connection
+                httpGet.abort();
+            }
+            try {
+                parser.close();
+            } catch (IOException e) {
+                // the connection is released anyway
+            }
+            httpGet.releaseConnection();
+            onClose.run();
+        }
+
+        /**
+         * @return the next resource or null at the end of the response
+         */
+        private T advance() throws IOException {
+            while (true) {
+                if (inResources) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        return mapper.readValue(parser, resourceType);
+                    }
+                    // END_ARRAY
+                    inResources = false;
+                }
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_OBJECT) {
+                    return null;
+                }
+                String field = parser.getCurrentName();
+                token = parser.nextToken();
+                if (RESOURCES.equals(field) && token == JsonToken.START_ARRAY) {
+                    inResources = true;
+                } else if (TOTAL_RESULTS.equals(field) && token.isNumeric()) {
+                    totalResults = parser.getLongValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final String resourceEndpoint;
+        private SharedHttpConnectionPool pool = SharedHttpConnectionPool.getDefault();
+        private ConnectorMetrics metrics = NoOpConnectorMetrics.INSTANCE;
+
+        /**
+         * @param resourceEndpoint the address of the resource server, like the one the connector is built with
+         */
+        public Builder(String resourceEndpoint) {
+            this.resourceEndpoint = resourceEndpoint;
+        }
+
+        /**
+         * @param pool the connections for the searches; default the JVM wide pool
+         */
+        public Builder setConnectionPool(SharedHttpConnectionPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * @param metrics receives the bytes of every search, as operation <code>streamingSearchUsers</code> or
+         *                <code>streamingSearchGroups</code>; default {@link NoOpConnectorMetrics}
+         */
+        public Builder setMetrics(ConnectorMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public StreamingSearch build() {
+            return new StreamingSearch(this);
+        }
+    }
+}
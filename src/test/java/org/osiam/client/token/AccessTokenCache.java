@@ -0,0 +1,279 @@
+package org.osiam.client.token;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+import org.osiam.client.operations.OsiamOperations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe cache of access tokens, so that all units of work of one client share a token instead of each
+ * calling <code>/oauth/token</code>. Tokens are cached per {@link Key}, i.e. per grant type, client, scope and user.
+ * <p/>
+ * Tokens are renewed ahead of their expiry: once the remaining lifetime drops below the refresh ahead ratio, the
+ * cached token is still handed out while a background thread retrieves its successor. A token is never handed out
+ * within the minimum validity before it expires, so that it does not expire on its way to the server; callers then
+ * wait for the new one.
+ * <p/>
+ * The expiry is tracked with the precision of {@link System#nanoTime()} from the moment before the token was
+ * requested, plus the whole seconds of <code>expires_in</code>. A token whose rounded lifetime leaves nothing beyond
+ * the minimum validity, e.g. a one second token reported with <code>expires_in</code> 0, is requested again up to
+ * {@value #MAX_ATTEMPTS} times and then rejected with an {@link IllegalStateException}.
+ */
+public class AccessTokenCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessTokenCache.class);
+    static final int MAX_ATTEMPTS = 3;
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final double refreshAheadRatio;
+    private final long minValidityNanos;
+    private final ExecutorService refresher;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retrievals = new AtomicLong();
+
+    private AccessTokenCache(Builder builder) {
+        refreshAheadRatio = builder.refreshAheadRatio;
+        minValidityNanos = builder.minValidityNanos;
+        refresher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "access-token-refresher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Returns the cached token for the given key, retrieving a new one with the given connector if there is none or
+     * it is about to expire. The connector must be configured with the credentials the key describes. Pass an
+     * <code>InstrumentedOsiamConnector</code> to have the retrievals counted by its metrics.
+     */
+    public AccessToken retrieveAccessToken(Key key, final OsiamOperations connector) {
+        return retrieveAccessToken(key, new TokenSource() {
+            @Override
+            public AccessToken retrieveAccessToken() {
+                return connector.retrieveAccessToken();
+            }
+        });
+    }
+
+    /**
+     * Returns the cached token for the given key, retrieving a new one from the given source if there is none or it
+     * is about to expire.
+     *
+     * @throws IllegalStateException if the source only returns tokens that expire within the minimum validity
+     */
+    public AccessToken retrieveAccessToken(Key key, TokenSource source) {
+        requests.incrementAndGet();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entries.putIfAbsent(key, new Entry(key));
+            entry = entries.get(key);
+        }
+        return entry.get(source);
+    }
+
+    /**
+     * Drops the cached token of the given key, e.g. after the server rejected it.
+     */
+    public void invalidate(Key key) {
+        entries.remove(key);
+    }
+
+    /**
+     * @return the number of tokens requested from this cache
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of tokens retrieved from the token endpoint
+     */
+    public long getRetrievals() {
+        return retrievals.get();
+    }
+
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Retrieves new tokens for one {@link Key}, usually from an {@link OsiamOperations}.
+     */
+    public interface TokenSource {
+        AccessToken retrieveAccessToken();
+    }
+
+    private class Entry {
+
+        private final Key key;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile CachedToken current;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        AccessToken get(final TokenSource source) {
+            CachedToken token = current;
+            long now = System.nanoTime();
+            if (token != null && now < token.refreshAt) {
+                return token.accessToken;
+            }
+            if (token != null && now < token.usableUntil) {
+                if (refreshing.compareAndSet(false, true)) {
+                    refresher.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                refresh(source);
+                            } catch (RuntimeException e) {
+                                LOGGER.warn("Could not refresh access token ahead of expiry", e);
+                            } finally {
+                                refreshing.set(false);
+                            }
+                        }
+                    });
+                }
+                return token.accessToken;
+            }
+            synchronized (this) {
+                token = current;
+                if (token != null && System.nanoTime() < token.usableUntil) {
+                    return token.accessToken;
+                }
+                return refresh(source).accessToken;
+            }
+        }
+
+        private CachedToken refresh(TokenSource source) {
+            for (int attempt = 1; ; attempt++) {
+                // the server issues the token after this, so the expiry is never later than computed
+                long retrievedAt = System.nanoTime();
+                AccessToken accessToken = source.retrieveAccessToken();
+                retrievals.incrementAndGet();
+                long lifetime = TimeUnit.SECONDS.toNanos(accessToken.getExpiresIn());
+                long minValidity = Math.min(minValidityNanos, lifetime / 4);
+                long usableUntil = retrievedAt + lifetime - minValidity;
+                CachedToken token = new CachedToken(accessToken,
+                        Math.min(retrievedAt + lifetime - (long) (lifetime * refreshAheadRatio), usableUntil),
+                        usableUntil);
+                if (System.nanoTime() < token.usableUntil) {
+                    current = token;
+                    return token;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new IllegalStateException("The access tokens of " + key + " expire within "
+                            + accessToken.getExpiresIn() + " seconds, too soon to be handed out");
+                }
+            }
+        }
+    }
+
+    private static class CachedToken {
+
+        final AccessToken accessToken;
+        final long refreshAt;
+        final long usableUntil;
+
+        CachedToken(AccessToken accessToken, long refreshAt, long usableUntil) {
+            this.accessToken = accessToken;
+            this.refreshAt = refreshAt;
+            this.usableUntil = usableUntil;
+        }
+    }
+
+    /**
+     * Identifies the tokens that can be shared: the same grant type, client, scope and, for the resource owner
+     * password credentials grant, the same user.
+     */
+    public static final class Key {
+
+        private final GrantType grantType;
+        private final String clientId;
+        private final Scope scope;
+        private final String userName;
+
+        public Key(GrantType grantType, String clientId, Scope scope, String userName) {
+            this.grantType = grantType;
+            this.clientId = clientId;
+            this.scope = scope;
+            this.userName = userName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return equal(grantType, other.grantType) && equal(clientId, other.clientId)
+                    && equal(scope, other.scope) && equal(userName, other.userName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = grantType == null ? 0 : grantType.hashCode();
+            result = 31 * result + (clientId == null ? 0 : clientId.hashCode());
+            result = 31 * result + (scope == null ? 0 : scope.hashCode());
+            result = 31 * result + (userName == null ? 0 : userName.hashCode());
+            return result;
+        }
+
+        private static boolean equal(Object a, Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        @Override
+        public String toString() {
+            return grantType + " " + clientId + " " + scope + " " + userName;
+        }
+    }
+
+    public static class Builder {
+
+        private double refreshAheadRatio = 0.25;
+        private long minValidityNanos = TimeUnit.SECONDS.toNanos(1);
+
+        /**
+         * @param refreshAheadRatio the part of the token lifetime before its expiry in which it is renewed in the
+         *                          background, default 0.25
+         */
+        public Builder setRefreshAheadRatio(double refreshAheadRatio) {
+            if (refreshAheadRatio < 0 || refreshAheadRatio >= 1) {
+                throw new IllegalArgumentException("The refresh ahead ratio must be in [0, 1)");
+            }
+            this.refreshAheadRatio = refreshAheadRatio;
+            return this;
+        }
+
+        /**
+         * @param minValidity how long a handed out token must at least stay valid, default one second, but at most a
+         *                    quarter of the token lifetime
+         */
+        public Builder setMinValidity(long minValidity, TimeUnit unit) {
+            minValidityNanos = unit.toNanos(minValidity);
+            return this;
+        }
+
+        public AccessTokenCache build() {
+            return new AccessTokenCache(this);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.osiam.client.token;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.osiam.client.oauth.AccessToken;
+import org.osiam.client.oauth.GrantType;
+import org.osiam.client.oauth.Scope;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives the cache with a token source whose tokens have exactly the lifetime of their <code>expires_in</code>,
+ * so that the timing does not depend on how the auth server rounds the remaining seconds.
+ */
+public class AccessTokenCacheTest {
+
+    private static final AccessTokenCache.Key KEY = new AccessTokenCache.Key(
+            GrantType.RESOURCE_OWNER_PASSWORD_CREDENTIALS, "example-client", Scope.ALL, "marissa");
+
+    private final AccessTokenCache cache = new AccessTokenCache.Builder()
+            .setMinValidity(200, TimeUnit.MILLISECONDS).build();
+
+    @After
+    public void closeCache() {
+        cache.close();
+    }
+
+    @Test
+    public void tokens_are_never_handed_out_within_the_minimum_validity() {
+        FixedLifetimeSource source = new FixedLifetimeSource(1);
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500);
+        int requests = 0;
+
+        while (System.nanoTime() < end) {
+            // the cache checks the validity after this, so the remaining time it saw was at most this
+            long before = System.nanoTime();
+            AccessToken token = cache.retrieveAccessToken(KEY, source);
+            long remaining = source.expiresAt(token) - before;
+            assertTrue("A token was handed out " + TimeUnit.NANOSECONDS.toMillis(remaining)
+                    + " ms before its expiry", remaining >= TimeUnit.MILLISECONDS.toNanos(200));
+            requests++;
+        }
+
+        // a new token every 750 ms at most, some more from the background refresh
+        assertTrue("Retrieved " + cache.getRetrievals() + " tokens", cache.getRetrievals() <= 8);
+        assertEquals(requests, cache.getRequests());
+    }
+
+    @Test
+    public void tokens_expiring_within_the_minimum_validity_are_rejected() {
+        FixedLifetimeSource source = new FixedLifetimeSource(0);
+
+        try {
+            cache.retrieveAccessToken(KEY, source);
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertEquals(AccessTokenCache.MAX_ATTEMPTS, source.retrievals.get());
+        }
+    }
+
+    @Test
+    public void the_next_token_is_used_once_the_previous_one_is_too_old() throws Exception {
+        AccessTokenCache noRefreshAhead = new AccessTokenCache.Builder().setRefreshAheadRatio(0)
+                .setMinValidity(200, TimeUnit.MILLISECONDS).build();
+        try {
+            FixedLifetimeSource source = new FixedLifetimeSource(1);
+            AccessToken first = noRefreshAhead.retrieveAccessToken(KEY, source);
+            Thread.sleep(800);
+
+            AccessToken second = noRefreshAhead.retrieveAccessToken(KEY, source);
+
+            assertTrue(first != second);
+            assertEquals(2, source.retrievals.get());
+        } finally {
+            noRefreshAhead.close();
+        }
+    }
+
+    /**
+     * Issues tokens that expire exactly the given number of seconds after they were retrieved.
+     */
+    private static class FixedLifetimeSource implements AccessTokenCache.TokenSource {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        final AtomicInteger retrievals = new AtomicInteger();
+        private final int expiresIn;
+        private final Map<AccessToken, Long> expiries = new ConcurrentHashMap<>();
+
+        FixedLifetimeSource(int expiresIn) {
+            this.expiresIn = expiresIn;
+        }
+
+        @Override
+        public AccessToken retrieveAccessToken() {
+            int n = retrievals.incrementAndGet();
+            AccessToken token;
+            try {
+                token = MAPPER.readValue("{\"access_token\":\"token-" + n + "\",\"token_type\":\"bearer\","
+                        + "\"expires_in\":" + expiresIn + "}", AccessToken.class);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            expiries.put(token, System.nanoTime() + TimeUnit.SECONDS.toNanos(expiresIn));
+            return token;
+        }
+
+        long expiresAt(AccessToken token) {
+            return expiries.get(token);
+        }
+    }
+}